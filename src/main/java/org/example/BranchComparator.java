@@ -5,14 +5,24 @@ import org.example.exceptions.GitHubApiException;
 
 import java.util.*;
 
+/**
+ * Compares a local branch with a remote GitHub branch. All GitHub requests of one comparison share a single
+ * {@link ResiliencePolicy#budget()}, so retries and pagination cannot stretch a comparison beyond it.
+ */
 public class BranchComparator {
 
     private final GitCommandExecutor git;
     private final GitHubApiClient github;
+    private final SourcePlanner planner;
 
     public BranchComparator(GitCommandExecutor gitCommandExecutor, GitHubApiClient githubApiClient) {
+        this(gitCommandExecutor, githubApiClient, null);
+    }
+
+    public BranchComparator(GitCommandExecutor gitCommandExecutor, GitHubApiClient githubApiClient, SourcePlanner sourcePlanner) {
         this.git = gitCommandExecutor;
         this.github = githubApiClient;
+        this.planner = sourcePlanner;
     }
 
     /**
@@ -36,18 +46,219 @@ public class BranchComparator {
      * @see GitHubApiClient#getModifiedFilesNames(String, String)
      */
     public List<String> compareModifiedFiles(String localBranch, String remoteBranch) throws GitCommandException, GitHubApiException {
+        if (planner != null) return compare(localBranch, remoteBranch).modifiedFiles();
+
+        long deadline = github.newDeadline();
         List<String> localCommits = git.getCommitHistory(localBranch);
-        List<String> remoteCommits = github.getCommitHistory(remoteBranch);
+        List<String> remoteCommits = github.getCommitHistory(remoteBranch, deadline);
 
         Optional<String> baseCommit = findBaseCommit(localCommits, remoteCommits);
         if (baseCommit.isEmpty()) return Collections.emptyList();
 
         List<String> localModifiedFiles = git.getModifiedFilesNames(baseCommit.get(), localCommits.getFirst());
-        List<String> remoteModifiedFiles = github.getModifiedFilesNames(baseCommit.get(), remoteCommits.getFirst());
+        List<String> remoteModifiedFiles = github.getModifiedFilesNames(baseCommit.get(), remoteCommits.getFirst(), deadline);
+
+        return findCommonModifiedFiles(localModifiedFiles, remoteModifiedFiles);
+    }
+
+    /**
+     * Finds the common modified files between the local and remote branches within the subtrees selected by the
+     * filter. The filter is pushed down to both sources, so nothing outside the area of interest is diffed:
+     * <ul>
+     *     <li>For a single include, both histories are listed with that path only ({@code git rev-list -- path} and
+     *     the {@code path} parameter of the GitHub commits endpoint), and the base commit is the most recent common
+     *     commit that changed it. Since no later common commit touched the path, diffing from there yields the same
+     *     files as diffing from the merge base. If either branch never changed the path, nothing is diffed at all.</li>
+     *     <li>Otherwise the full histories are used for the base commit, as GitHub cannot filter them the same way.</li>
+     * </ul>
+     * The local diff runs with the filter as pathspecs, and the remote compare only keeps matching file names while
+     * it is being parsed. The remote compare is skipped when no matching file changed locally.
+     *
+     * @param localBranch The name of the local branch for which commit history is to be fetched.
+     * @param remoteBranch The name of the remote branch for which commit history is to be fetched.
+     * @param filter The paths to include and exclude.
+     * @return List of file paths matching the filter that have been modified in both branches.
+     * @throws GitCommandException If an error occurs while executing Git commands for the local branch.
+     * @throws GitHubApiException If an error occurs while querying the GitHub API for the remote branch.
+     *
+     * @see PathFilter
+     */
+    public List<String> compareModifiedFiles(String localBranch, String remoteBranch, PathFilter filter) throws GitCommandException, GitHubApiException {
+        if (filter.isAll()) return compareModifiedFiles(localBranch, remoteBranch);
+
+        long deadline = github.newDeadline();
+        List<String> localCommits = List.of();
+        List<String> remoteCommits = List.of();
+        Optional<String> baseCommit = Optional.empty();
+
+        if (filter.singleInclude().isPresent()) {
+            localCommits = git.getCommitHistory(localBranch, filter);
+            if (localCommits.isEmpty()) return Collections.emptyList();
+
+            remoteCommits = github.getCommitHistory(remoteBranch, filter, deadline);
+            if (remoteCommits.isEmpty()) return Collections.emptyList();
+
+            baseCommit = findBaseCommit(localCommits, remoteCommits);
+        }
+
+        if (baseCommit.isEmpty()) {
+            // The paths were never changed in the common history (or cannot be filtered remotely): the base commit
+            // has to come from the full histories.
+            localCommits = git.getCommitHistory(localBranch);
+            remoteCommits = github.getCommitHistory(remoteBranch, deadline);
+            baseCommit = findBaseCommit(localCommits, remoteCommits);
+            if (baseCommit.isEmpty()) return Collections.emptyList();
+        }
+
+        String base = baseCommit.get();
+        if (base.equals(localCommits.getFirst()) || base.equals(remoteCommits.getFirst())) return Collections.emptyList();
+
+        List<String> localModifiedFiles = git.getModifiedFilesNames(base, localCommits.getFirst(), filter);
+        if (localModifiedFiles.isEmpty()) return Collections.emptyList();
+
+        List<String> remoteModifiedFiles = github.getModifiedFilesNames(base, remoteCommits.getFirst(), filter, deadline);
+
+        return findCommonModifiedFiles(localModifiedFiles, remoteModifiedFiles);
+    }
+
+    /**
+     * Finds which of the given file paths were modified in both the local and the remote branch since their merge base.
+     * Per-commit changed-path Bloom filters are consulted first, so that paths no commit on one of the sides touched
+     * are ruled out without any diff; only the remaining candidates are confirmed with a path-limited local diff and
+     * a remote compare, and no diff is run at all if no candidate remains. The filters are consulted for exactly the
+     * commits in {@code base..head} on each side ({@code git rev-list} locally, the compare commit list remotely), so
+     * commits of merged side branches count even when they are older than the base; if GitHub truncates the
+     * compare commit list, the remote filters are skipped.
+     *
+     * @param localBranch The name of the local branch for which commit history is to be fetched.
+     * @param remoteBranch The name of the remote branch for which commit history is to be fetched.
+     * @param paths The file paths of interest.
+     * @param index The changed-path filters to consult.
+     * @return List of the given file paths that have been modified in both branches.
+     * @throws GitCommandException If an error occurs while executing Git commands for the local branch.
+     * @throws GitHubApiException If an error occurs while querying the GitHub API for the remote branch.
+     *
+     * @see ChangedPathIndex
+     */
+    public List<String> findCommonTouchedPaths(String localBranch, String remoteBranch, Collection<String> paths,
+                                               ChangedPathIndex index) throws GitCommandException, GitHubApiException {
+        long deadline = github.newDeadline();
+        List<String> localCommits = git.getCommitHistory(localBranch);
+        List<String> remoteCommits = github.getCommitHistory(remoteBranch, deadline);
+
+        Optional<String> baseCommit = findBaseCommit(localCommits, remoteCommits);
+        if (baseCommit.isEmpty() || paths.isEmpty()) return Collections.emptyList();
+
+        String base = baseCommit.get();
+        String localHead = localCommits.getFirst();
+        List<String> localSince = git.getCommitHistory(base + ".." + localHead).stream()
+                .filter(commit -> !commit.isBlank())
+                .toList();
+        Set<String> candidates = index.mightBeTouchedLocally(base, localHead, localSince, paths);
+        if (candidates.isEmpty()) return Collections.emptyList();
+
+        String remoteHead = remoteCommits.getFirst();
+        Optional<List<String>> remoteSince = github.getComparedCommits(base, remoteHead, deadline);
+        if (remoteSince.isPresent()) {
+            candidates = index.mightBeTouchedRemotely(remoteSince.get(), candidates, deadline);
+            if (candidates.isEmpty()) return Collections.emptyList();
+        }
+
+        List<String> localModifiedFiles = git.getModifiedFilesNames(base, localHead, candidates);
+        if (localModifiedFiles.isEmpty()) return Collections.emptyList();
+
+        List<String> remoteModifiedFiles = github.getModifiedFilesNames(base, remoteHead, deadline);
 
         return findCommonModifiedFiles(localModifiedFiles, remoteModifiedFiles);
     }
 
+    /**
+     * Narrows the result of {@link #compareModifiedFiles(String, String)} down to the files whose changed line ranges
+     * actually overlap, i.e. the files expected to conflict when the branches are merged.
+     * Line ranges are only fetched for files modified on both sides: a single streamed compare request yields the
+     * remote hunks of the locally modified files, and {@code git diff -U0} is run only for the intersection.
+     *
+     * @param localBranch The name of the local branch for which commit history is to be fetched.
+     * @param remoteBranch The name of the remote branch for which commit history is to be fetched.
+     * @return List of file paths modified in both branches with overlapping or adjacent changed lines.
+     *         Files without line information on either side (binary files, omitted patches) are always included.
+     * @throws GitCommandException If an error occurs while executing Git commands for the local branch.
+     * @throws GitHubApiException If an error occurs while querying the GitHub API for the remote branch.
+     *
+     * @see GitCommandExecutor#getChangedLineRanges(String, String, Collection)
+     * @see GitHubApiClient#getChangedLineRanges(String, String, Set)
+     */
+    public List<String> findConflictingFiles(String localBranch, String remoteBranch) throws GitCommandException, GitHubApiException {
+        long deadline = github.newDeadline();
+        List<String> localCommits = git.getCommitHistory(localBranch);
+        List<String> remoteCommits = github.getCommitHistory(remoteBranch, deadline);
+
+        Optional<String> baseCommit = findBaseCommit(localCommits, remoteCommits);
+        if (baseCommit.isEmpty()) return Collections.emptyList();
+
+        List<String> localModifiedFiles = git.getModifiedFilesNames(baseCommit.get(), localCommits.getFirst());
+        if (localModifiedFiles.isEmpty()) return Collections.emptyList();
+
+        Map<String, List<LineRange>> remoteRanges = github.getChangedLineRanges(baseCommit.get(), remoteCommits.getFirst(), new HashSet<>(localModifiedFiles), deadline);
+        if (remoteRanges.isEmpty()) return Collections.emptyList();
+
+        Map<String, List<LineRange>> localRanges = git.getChangedLineRanges(baseCommit.get(), localCommits.getFirst(), remoteRanges.keySet());
+
+        return remoteRanges.keySet().stream()
+                .filter(file -> LineRange.anyOverlap(localRanges.get(file), remoteRanges.get(file)))
+                .toList();
+    }
+
+    /**
+     * Finds the common modified files like {@link #compareModifiedFiles(String, String)}, but reads the remote side
+     * according to the plan chosen by the configured {@link SourcePlanner}: from the local clone when the remote head
+     * is already present, from a stale remote-tracking ref plus the missing commits, or fully from the GitHub API.
+     *
+     * @param localBranch The name of the local branch for which commit history is to be fetched.
+     * @param remoteBranch The name of the remote branch for which commit history is to be fetched.
+     * @return The common modified files together with the plan that was used.
+     * @throws GitCommandException If an error occurs while executing Git commands.
+     * @throws GitHubApiException If an error occurs while querying the GitHub API.
+     * @throws IllegalStateException If the comparator was created without a {@link SourcePlanner}.
+     *
+     * @see SourcePlanner#plan(String)
+     */
+    public ComparisonResult compare(String localBranch, String remoteBranch) throws GitCommandException, GitHubApiException {
+        if (planner == null) throw new IllegalStateException("No source planner configured");
+
+        long deadline = github.newDeadline();
+        SourcePlan plan = planner.plan(remoteBranch, deadline);
+
+        List<String> localCommits = git.getCommitHistory(localBranch);
+        List<String> remoteCommits = getRemoteCommitHistory(plan, deadline);
+
+        Optional<String> baseCommit = findBaseCommit(localCommits, remoteCommits);
+        if (baseCommit.isEmpty()) return new ComparisonResult(Collections.emptyList(), plan);
+
+        List<String> localModifiedFiles = git.getModifiedFilesNames(baseCommit.get(), localCommits.getFirst());
+        List<String> remoteModifiedFiles = plan.strategy() == SourcePlan.Strategy.LOCAL
+                ? git.getModifiedFilesNames(baseCommit.get(), plan.remoteHead())
+                : github.getModifiedFilesNames(baseCommit.get(), plan.remoteHead(), deadline);
+
+        return new ComparisonResult(findCommonModifiedFiles(localModifiedFiles, remoteModifiedFiles), plan);
+    }
+
+    private List<String> getRemoteCommitHistory(SourcePlan plan, long deadline) throws GitCommandException, GitHubApiException {
+        switch (plan.strategy()) {
+            case LOCAL:
+                return git.getCommitHistory(plan.remoteHead());
+            case HYBRID:
+                List<String> delta = github.getCommitHistory(plan.remoteHead(), plan.localCommit(), deadline);
+                if (delta.isEmpty() || !delta.getLast().equals(plan.localCommit())) return delta;
+
+                List<String> history = new ArrayList<>(delta.subList(0, delta.size() - 1));
+                history.addAll(git.getCommitHistory(plan.localCommit()));
+                return history;
+            default:
+                return github.getCommitHistory(plan.remoteHead(), deadline);
+        }
+    }
+
     /**
      * Finds the most recent common commit (merge base) between local and remote commit histories.
      * The histories are provided in reverse chronological order (most recent first).
@@ -56,7 +267,7 @@ public class BranchComparator {
      * @param remote List of local commit SHA hashes in reverse chronological order (most recent first).
      * @return Optional containing the most recent common commit hash, or an empty Optional if no common commit is found.
      */
-    private Optional<String> findBaseCommit(List<String> local, List<String> remote) {
+    static Optional<String> findBaseCommit(List<String> local, List<String> remote) {
         if (local.isEmpty() || remote.isEmpty()) return Optional.empty();
 
         int i = local.size() - 1;
@@ -83,7 +294,7 @@ public class BranchComparator {
      * @param remote List of modified file paths from remote commit history between the merge base and the most recent commit.
      * @return List of file paths that are present in both lists.
      */
-    private List<String> findCommonModifiedFiles(List<String> local, List<String> remote) {
+    static List<String> findCommonModifiedFiles(List<String> local, List<String> remote) {
         if (local.isEmpty() || remote.isEmpty()) return new ArrayList<>();
 
         Set<String> localSet = new HashSet<>(local);
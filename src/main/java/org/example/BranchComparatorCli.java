@@ -0,0 +1,188 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.exceptions.GitCommandException;
+import org.example.exceptions.GitHubApiException;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command-line entry point for git hooks and pre-push checks:
+ * <pre>
+ * git-diff-lib --github owner/repo --local feature --remote main [--repo .] [--include path]... [--exclude path]...
+ *              [--conflicts] [--fail-on-overlap] [--api-url url]
+ * </pre>
+ * The GitHub token is read from {@code GITHUB_TOKEN}, or from {@code GH_TOKEN} if that is unset or blank. The result is
+ * printed as JSON:
+ * {@code {"local":"feature","remote":"main","files":[...]}}.
+ * <p>
+ * Exit codes: {@value #EXIT_OK} on success, {@value #EXIT_OVERLAP} if files overlap and {@code --fail-on-overlap} is
+ * given, {@value #EXIT_USAGE} for invalid arguments and {@value #EXIT_FAILURE} if Git or GitHub fails.
+ * <p>
+ * The class does nothing at startup beyond what one comparison needs, so that it runs well from an AppCDS archive
+ * or as a GraalVM native image (see {@code META-INF/native-image}).
+ */
+public class BranchComparatorCli {
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_OVERLAP = 1;
+    public static final int EXIT_USAGE = 2;
+    public static final int EXIT_FAILURE = 3;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String USAGE = """
+            Usage: git-diff-lib --github <owner>/<repo> --local <branch> --remote <branch> [options]
+              --repo <path>        Local repository (default: current directory)
+              --include <path>     Only compare this subtree (repeatable)
+              --exclude <path>     Ignore this subtree (repeatable)
+              --conflicts          Report only files whose changed lines overlap
+              --fail-on-overlap    Exit with 1 if any file is reported
+              --api-url <url>      GitHub API root (default: https://api.github.com)
+            The GitHub token is read from GITHUB_TOKEN or GH_TOKEN.""";
+
+    /**
+     * Parsed command-line arguments.
+     */
+    public record Options(String repoPath, String owner, String repo, String localBranch, String remoteBranch,
+                          PathFilter filter, boolean conflicts, boolean failOnOverlap, String apiUrl) {
+
+        /**
+         * @param args The command-line arguments.
+         * @return The parsed options.
+         * @throws IllegalArgumentException If an argument is unknown, a value is missing, a required option is absent
+         *                                  or {@code --api-url} is not an absolute http(s) URL.
+         */
+        public static Options parse(String[] args) {
+            String repoPath = ".";
+            String github = null;
+            String local = null;
+            String remote = null;
+            String apiUrl = GitHubApiClient.DEFAULT_API_URL;
+            List<String> includes = new ArrayList<>();
+            List<String> excludes = new ArrayList<>();
+            boolean conflicts = false;
+            boolean failOnOverlap = false;
+
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--repo" -> repoPath = value(args, ++i);
+                    case "--github" -> github = value(args, ++i);
+                    case "--local" -> local = value(args, ++i);
+                    case "--remote" -> remote = value(args, ++i);
+                    case "--include" -> includes.add(value(args, ++i));
+                    case "--exclude" -> excludes.add(value(args, ++i));
+                    case "--api-url" -> apiUrl = value(args, ++i);
+                    case "--conflicts" -> conflicts = true;
+                    case "--fail-on-overlap" -> failOnOverlap = true;
+                    default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+                }
+            }
+
+            if (github == null || local == null || remote == null) {
+                throw new IllegalArgumentException("--github, --local and --remote are required");
+            }
+            int slash = github.indexOf('/');
+            if (slash <= 0 || slash == github.length() - 1 || github.indexOf('/', slash + 1) >= 0) {
+                throw new IllegalArgumentException("--github must be <owner>/<repo>: " + github);
+            }
+            if (conflicts && !(includes.isEmpty() && excludes.isEmpty())) {
+                throw new IllegalArgumentException("--conflicts cannot be combined with --include or --exclude");
+            }
+            validateApiUrl(apiUrl);
+
+            return new Options(repoPath, github.substring(0, slash), github.substring(slash + 1), local, remote,
+                    PathFilter.of(includes, excludes), conflicts, failOnOverlap, apiUrl);
+        }
+
+        private static void validateApiUrl(String apiUrl) {
+            URI uri;
+            try {
+                uri = new URI(apiUrl);
+            } catch (URISyntaxException e) {
+                throw new IllegalArgumentException("--api-url must be an http(s) URL: " + apiUrl, e);
+            }
+            String scheme = uri.getScheme();
+            if (!("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme)) || uri.getHost() == null
+                    || uri.getRawQuery() != null || uri.getRawFragment() != null) {
+                throw new IllegalArgumentException("--api-url must be an http(s) URL: " + apiUrl);
+            }
+        }
+
+        private static String value(String[] args, int index) {
+            if (index >= args.length || args[index].startsWith("--")) {
+                throw new IllegalArgumentException("Missing value for " + args[index - 1]);
+            }
+            return args[index];
+        }
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.getenv(), System.out, System.err));
+    }
+
+    public static int run(String[] args, Map<String, String> env, PrintStream out, PrintStream err) {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            err.println("error: " + e.getMessage());
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        String token = env.get("GITHUB_TOKEN");
+        if (token == null || token.isBlank()) token = env.get("GH_TOKEN");
+        if (token == null || token.isBlank()) {
+            err.println("error: set GITHUB_TOKEN or GH_TOKEN to a GitHub token with read access to " + options.owner() + "/" + options.repo());
+            return EXIT_USAGE;
+        }
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        GitHubApiClient github = new GitHubApiClient(client, options.repo(), options.owner(), token, ResiliencePolicy.none(), options.apiUrl());
+        GitCommandExecutor git = new GitCommandExecutor(options.repoPath(), new CommandUtils());
+
+        return run(options, new BranchComparator(git, github), out, err);
+    }
+
+    /**
+     * Runs the comparison described by the options and prints its result. No exception escapes: an
+     * {@link IllegalArgumentException}, such as a branch name that cannot be part of a request URL, is reported with
+     * {@value #EXIT_USAGE}, and any other failure with {@value #EXIT_FAILURE}, never with the {@value #EXIT_OVERLAP}
+     * the JVM would exit with for an uncaught exception.
+     *
+     * @return The exit code.
+     */
+    public static int run(Options options, BranchComparator comparator, PrintStream out, PrintStream err) {
+        try {
+            List<String> files = options.conflicts()
+                    ? comparator.findConflictingFiles(options.localBranch(), options.remoteBranch())
+                    : comparator.compareModifiedFiles(options.localBranch(), options.remoteBranch(), options.filter());
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("local", options.localBranch());
+            result.put("remote", options.remoteBranch());
+            result.put("files", files);
+            out.println(MAPPER.writeValueAsString(result));
+
+            return options.failOnOverlap() && !files.isEmpty() ? EXIT_OVERLAP : EXIT_OK;
+        } catch (GitCommandException | GitHubApiException | IOException e) {
+            err.println("error: " + e.getMessage());
+            return EXIT_FAILURE;
+        } catch (IllegalArgumentException e) {
+            err.println("error: " + e.getMessage());
+            return EXIT_USAGE;
+        } catch (RuntimeException e) {
+            err.println("error: " + e);
+            return EXIT_FAILURE;
+        }
+    }
+}
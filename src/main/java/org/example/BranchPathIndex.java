@@ -0,0 +1,209 @@
+package org.example;
+
+import org.example.exceptions.GitCommandException;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inverted index from file paths to the branches that modified them since their merge base with the main branch,
+ * answering "which open branches touch these files" without running any Git command at query time.
+ * <p>
+ * Every branch gets a small integer id and every path a {@link PostingList} of the ids of the branches that modified
+ * it. {@link #refresh()} keeps the index current with a single {@code git for-each-ref}: only branches whose head
+ * moved, or whose merge base moved because the main branch picked up some of their commits, are diffed again, and
+ * only the postings of the paths that entered or left their modified-file sets are rewritten. Lookups read immutable
+ * posting lists and never block on a refresh.
+ */
+public class BranchPathIndex {
+    static final int MAX_CONTAINS_QUERY = 64;
+
+    private final GitCommandExecutor git;
+    private final String mainBranch;
+    private final String refPrefix;
+
+    private final Map<String, PostingList> postings = new ConcurrentHashMap<>();
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final Map<Integer, IndexedBranch> branches = new HashMap<>();
+    private final Deque<Integer> freeIds = new ArrayDeque<>();
+    private volatile String[] names = new String[0];
+    private String mainHead;
+
+    private record IndexedBranch(String name, String head, Set<String> files) {
+    }
+
+    /**
+     * @param git The executor of the local repository.
+     * @param mainBranch The branch merge bases are computed against, e.g. {@code origin/main}.
+     * @param refPrefix The references whose branches are indexed, e.g. {@code refs/remotes/origin/}.
+     */
+    public BranchPathIndex(GitCommandExecutor git, String mainBranch, String refPrefix) {
+        this.git = git;
+        this.mainBranch = mainBranch;
+        this.refPrefix = refPrefix;
+    }
+
+    /**
+     * Brings the index up to date with the current branch heads. Branches that disappeared are dropped, new branches
+     * and branches whose head or merge base moved are re-indexed, all others are left untouched.
+     *
+     * @return The names of the branches that were (re-)indexed or dropped.
+     * @throws GitCommandException If an error occurs while executing Git commands.
+     */
+    public synchronized Set<String> refresh() throws GitCommandException {
+        String newMainHead = git.getHeadCommit(mainBranch);
+        Map<String, String> heads = new LinkedHashMap<>(git.getBranchHeads(refPrefix));
+        heads.remove(mainBranch);
+
+        Set<String> changed = new TreeSet<>();
+        for (String name : ids.keySet()) {
+            if (!heads.containsKey(name)) changed.add(name);
+        }
+        heads.forEach((name, head) -> {
+            Integer id = ids.get(name);
+            if (id == null || !branches.get(id).head().equals(head)) changed.add(name);
+        });
+        if (!newMainHead.equals(mainHead)) {
+            findBranchesWithMovedBase(newMainHead, heads.keySet()).stream()
+                    .filter(heads::containsKey)
+                    .forEach(changed::add);
+        }
+
+        // Diff everything before touching the index, so that a failure leaves it, and mainHead, as they were and the
+        // next refresh detects the same changes again.
+        Map<String, Set<String>> modifiedFiles = new HashMap<>();
+        for (String name : changed) {
+            String head = heads.get(name);
+            if (head != null) modifiedFiles.put(name, readModifiedFiles(newMainHead, head));
+        }
+
+        for (String name : changed) {
+            Set<String> files = modifiedFiles.get(name);
+            if (files == null) remove(name);
+            else index(name, heads.get(name), files);
+        }
+        mainHead = newMainHead;
+        return changed;
+    }
+
+    /**
+     * Records the files a branch modified since its merge base, replacing what was recorded for it before. Useful to
+     * feed branches whose modified files were obtained elsewhere, e.g. from a GitHub compare.
+     *
+     * @param branch The name of the branch.
+     * @param head The SHA of the head commit the files were computed for.
+     * @param modifiedFiles The files modified by the branch.
+     */
+    public synchronized void index(String branch, String head, Collection<String> modifiedFiles) {
+        Set<String> files = Set.copyOf(modifiedFiles);
+        Integer existing = ids.get(branch);
+        int id = existing != null ? existing : allocate(branch);
+        Set<String> previous = existing != null ? branches.get(id).files() : Set.of();
+
+        for (String path : previous) {
+            if (!files.contains(path)) postings.computeIfPresent(path, (key, list) -> emptyToNull(list.without(id)));
+        }
+        for (String path : files) {
+            if (!previous.contains(path)) postings.merge(path, PostingList.of(new int[]{id}), (list, single) -> list.with(id));
+        }
+        branches.put(id, new IndexedBranch(branch, head, files));
+    }
+
+    /**
+     * Removes a branch from the index.
+     *
+     * @param branch The name of the branch.
+     */
+    public synchronized void remove(String branch) {
+        Integer id = ids.remove(branch);
+        if (id == null) return;
+
+        IndexedBranch removed = branches.remove(id);
+        for (String path : removed.files()) {
+            postings.computeIfPresent(path, (key, list) -> emptyToNull(list.without(id)));
+        }
+        String[] updated = names.clone();
+        updated[id] = null;
+        names = updated;
+        freeIds.push(id);
+    }
+
+    /**
+     * Finds every indexed branch that modified at least one of the given paths.
+     *
+     * @param paths The file paths of interest, e.g. the files of a pull request under review.
+     * @return The names of the matching branches, in alphabetical order.
+     */
+    public SortedSet<String> findBranchesTouching(Collection<String> paths) {
+        BitSet matches = new BitSet();
+        for (String path : paths) {
+            PostingList list = postings.get(path);
+            if (list != null) list.addTo(matches);
+        }
+
+        String[] snapshot = names;
+        SortedSet<String> result = new TreeSet<>();
+        matches.stream().filter(id -> id < snapshot.length && snapshot[id] != null).forEach(id -> result.add(snapshot[id]));
+        return result;
+    }
+
+    /**
+     * @param branch The name of the branch.
+     * @return The files the branch modified since its merge base, or an empty set if it is not indexed.
+     */
+    public synchronized Set<String> getModifiedFiles(String branch) {
+        Integer id = ids.get(branch);
+        return id == null ? Set.of() : branches.get(id).files();
+    }
+
+    /**
+     * @return The number of indexed branches.
+     */
+    public synchronized int size() {
+        return ids.size();
+    }
+
+    /**
+     * @return The total size of the compressed posting lists in bytes.
+     */
+    public long postingsSizeInBytes() {
+        return postings.values().stream().mapToLong(PostingList::sizeInBytes).sum();
+    }
+
+    /**
+     * A branch's merge base with the main branch only moves when the main branch picks up commits of that branch,
+     * so after the main branch advanced it is enough to look for branches containing one of its new commits. Large
+     * or non-linear moves of the main branch re-index every branch.
+     */
+    private Set<String> findBranchesWithMovedBase(String newMainHead, Set<String> branchNames) throws GitCommandException {
+        if (mainHead == null) return Set.of();
+        if (!git.isAncestor(mainHead, newMainHead)) return branchNames;
+
+        List<String> added = git.getCommitHistory(mainHead + ".." + newMainHead).stream()
+                .filter(commit -> !commit.isBlank())
+                .toList();
+        if (added.size() > MAX_CONTAINS_QUERY) return branchNames;
+
+        return git.findBranchesContaining(refPrefix, added);
+    }
+
+    private Set<String> readModifiedFiles(String mainHead, String head) throws GitCommandException {
+        Optional<String> base = git.findMergeBase(mainHead, head);
+        if (base.isEmpty() || base.get().equals(head)) return Set.of();
+
+        return new HashSet<>(git.getModifiedFilesNames(base.get(), head));
+    }
+
+    private int allocate(String branch) {
+        int id = freeIds.isEmpty() ? names.length : freeIds.pop();
+        String[] updated = Arrays.copyOf(names, Math.max(names.length, id + 1));
+        updated[id] = branch;
+        names = updated;
+        ids.put(branch, id);
+        return id;
+    }
+
+    private static PostingList emptyToNull(PostingList list) {
+        return list.isEmpty() ? null : list;
+    }
+}
@@ -0,0 +1,281 @@
+package org.example;
+
+import org.example.exceptions.GitCommandException;
+import org.example.exceptions.GitHubApiException;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Long-running watcher that keeps the overlap between a local and a remote branch up to date.
+ * <p>
+ * Instead of recomputing {@link BranchComparator#compareModifiedFiles(String, String)} from scratch, the watcher
+ * caches both commit histories and the modified files of each side. When a branch head moves, only the new commits
+ * are fetched ({@code git rev-list old..new} locally, pagination up to the previously known head remotely) and only
+ * the side that moved is diffed again, unless the merge base itself moved. Local heads are tracked through a
+ * {@link WatchService} on the repository refs, remote heads through conditional requests on a fixed interval.
+ */
+public class BranchWatcher implements AutoCloseable {
+
+    /**
+     * Receives the updates produced by a {@link BranchWatcher}. Callbacks are invoked on the watcher thread.
+     */
+    public interface Listener {
+        void onOverlapChanged(OverlapChange change);
+
+        default void onError(Exception e) {
+        }
+    }
+
+    private final GitCommandExecutor git;
+    private final GitHubApiClient github;
+    private final String localBranch;
+    private final String remoteBranch;
+    private final Duration interval;
+    private final Listener listener;
+
+    private volatile ScheduledExecutorService scheduler;
+    private WatchService watchService;
+    private Thread watchThread;
+
+    private String localHead;
+    private String remoteHead;
+    private List<String> localHistory = List.of();
+    private List<String> remoteHistory = List.of();
+    private String baseCommit;
+    private List<String> localModifiedFiles = List.of();
+    private List<String> remoteModifiedFiles = List.of();
+    private List<String> overlap = List.of();
+
+    /**
+     * @throws IllegalArgumentException If the interval is shorter than a millisecond.
+     */
+    public BranchWatcher(GitCommandExecutor git, GitHubApiClient github,
+                         String localBranch, String remoteBranch,
+                         Duration interval, Listener listener) {
+        if (interval.toMillis() <= 0) {
+            throw new IllegalArgumentException("The poll interval must be at least one millisecond: " + interval);
+        }
+        this.git = git;
+        this.github = github;
+        this.localBranch = localBranch;
+        this.remoteBranch = remoteBranch;
+        this.interval = interval;
+        this.listener = listener;
+    }
+
+    /**
+     * Checks both branch heads once and, if either of them moved, updates the overlap incrementally.
+     * The listener is notified only when the overlap actually changed, and always after the first poll.
+     *
+     * @throws GitCommandException If an error occurs while executing Git commands for the local branch.
+     * @throws GitHubApiException If an error occurs while querying the GitHub API for the remote branch.
+     */
+    public synchronized void poll() throws GitCommandException, GitHubApiException {
+        boolean firstPoll = localHead == null;
+
+        String newLocalHead = git.getHeadCommit(localBranch);
+        String newRemoteHead = github.getHeadCommit(remoteBranch);
+
+        boolean localMoved = !newLocalHead.equals(localHead);
+        boolean remoteMoved = !newRemoteHead.equals(remoteHead);
+        if (!localMoved && !remoteMoved) return;
+
+        // Nothing is recorded until every Git and GitHub call succeeded, so that a failed poll is retried in full
+        // by the next one instead of leaving the heads updated and the histories or modified files stale.
+        List<String> newLocalHistory = localMoved ? advanceLocalHistory(newLocalHead) : localHistory;
+        List<String> newRemoteHistory = remoteMoved ? advanceRemoteHistory(newRemoteHead) : remoteHistory;
+
+        String newBaseCommit = BranchComparator.findBaseCommit(newLocalHistory, newRemoteHistory).orElse(null);
+        boolean baseMoved = !Objects.equals(newBaseCommit, baseCommit);
+
+        List<String> newLocalModifiedFiles = List.of();
+        List<String> newRemoteModifiedFiles = List.of();
+        if (newBaseCommit != null) {
+            newLocalModifiedFiles = localMoved || baseMoved
+                    ? git.getModifiedFilesNames(newBaseCommit, newLocalHead)
+                    : localModifiedFiles;
+            newRemoteModifiedFiles = remoteMoved || baseMoved
+                    ? github.getModifiedFilesNames(newBaseCommit, newRemoteHead)
+                    : remoteModifiedFiles;
+        }
+
+        localHistory = newLocalHistory;
+        remoteHistory = newRemoteHistory;
+        localHead = newLocalHead;
+        remoteHead = newRemoteHead;
+        baseCommit = newBaseCommit;
+        localModifiedFiles = newLocalModifiedFiles;
+        remoteModifiedFiles = newRemoteModifiedFiles;
+
+        List<String> newOverlap = BranchComparator.findCommonModifiedFiles(localModifiedFiles, remoteModifiedFiles);
+        List<String> oldOverlap = overlap;
+        overlap = newOverlap;
+
+        Set<String> oldSet = new HashSet<>(oldOverlap);
+        Set<String> newSet = new HashSet<>(newOverlap);
+        List<String> added = newOverlap.stream().filter(file -> !oldSet.contains(file)).toList();
+        List<String> removed = oldOverlap.stream().filter(file -> !newSet.contains(file)).toList();
+
+        if (firstPoll || !added.isEmpty() || !removed.isEmpty()) {
+            listener.onOverlapChanged(new OverlapChange(localHead, remoteHead, added, removed, newOverlap));
+        }
+    }
+
+    /**
+     * @return The most recently computed list of files modified in both branches.
+     */
+    public synchronized List<String> getOverlap() {
+        return overlap;
+    }
+
+    /**
+     * Starts watching both branches in the background. Remote heads are polled on the configured interval,
+     * local ref changes trigger an immediate poll. The refs are watched in the common Git directory, so linked
+     * worktrees, {@code --separate-git-dir} checkouts and bare repositories are covered; if it cannot be located,
+     * the error is reported to the listener and local changes are only seen on the polling interval.
+     *
+     * @throws IOException If the watch service for the local repository refs could not be registered; the watcher is
+     *                     stopped again before it is thrown.
+     */
+    public synchronized void start() throws IOException {
+        if (scheduler != null) return;
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "branch-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::pollQuietly, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+
+        Path gitDir;
+        try {
+            gitDir = git.getGitDirectory();
+        } catch (GitCommandException e) {
+            listener.onError(e);
+            return;
+        }
+        if (!Files.isDirectory(gitDir)) return;
+
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            gitDir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+            registerRecursively(gitDir.resolve("refs").resolve("heads"));
+        } catch (IOException | RuntimeException e) {
+            try {
+                close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+
+        watchThread = new Thread(() -> watchRefs(gitDir), "branch-watcher-refs");
+        watchThread.setDaemon(true);
+        watchThread.start();
+    }
+
+    /**
+     * Stops the background polling and the local refs watch service.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        if (watchThread != null) {
+            watchThread.interrupt();
+            watchThread = null;
+        }
+        if (watchService != null) {
+            watchService.close();
+            watchService = null;
+        }
+    }
+
+    private List<String> advanceLocalHistory(String newHead) throws GitCommandException {
+        if (localHead == null || !git.isAncestor(localHead, newHead)) {
+            return git.getCommitHistory(newHead);
+        }
+
+        List<String> history = new ArrayList<>();
+        for (String commit : git.getCommitHistory(localHead + ".." + newHead)) {
+            if (!commit.isBlank()) history.add(commit);
+        }
+        history.addAll(localHistory);
+        return history;
+    }
+
+    private List<String> advanceRemoteHistory(String newHead) throws GitHubApiException {
+        if (remoteHead == null) {
+            return github.getCommitHistory(newHead);
+        }
+
+        List<String> delta = github.getCommitHistory(newHead, remoteHead);
+        if (delta.isEmpty() || !delta.getLast().equals(remoteHead)) {
+            return delta;
+        }
+
+        List<String> history = new ArrayList<>(delta.subList(0, delta.size() - 1));
+        history.addAll(remoteHistory);
+        return history;
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (GitCommandException | GitHubApiException | RuntimeException e) {
+            listener.onError(e);
+        }
+    }
+
+    private void watchRefs(Path gitDir) {
+        Path heads = gitDir.resolve("refs").resolve("heads");
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                Path dir = (Path) key.watchable();
+                boolean refsChanged = false;
+
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == OVERFLOW) {
+                        refsChanged = true;
+                        continue;
+                    }
+                    Path child = dir.resolve((Path) event.context());
+                    if (child.startsWith(heads)) {
+                        refsChanged = true;
+                        if (Files.isDirectory(child)) registerRecursively(child);
+                    } else if (child.getFileName().toString().equals("packed-refs")) {
+                        refsChanged = true;
+                    }
+                }
+                key.reset();
+
+                ScheduledExecutorService current = scheduler;
+                if (refsChanged && current != null) current.execute(this::pollQuietly);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            listener.onError(e);
+        }
+    }
+
+    private void registerRecursively(Path root) throws IOException {
+        if (!Files.isDirectory(root)) return;
+        try (var dirs = Files.walk(root)) {
+            for (Path dir : dirs.filter(Files::isDirectory).toList()) {
+                dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package org.example;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Bloom filter over the paths changed by a single commit, bit-compatible with the changed-path filters Git stores in
+ * the {@code BDAT} chunk of its commit-graph. Every changed path is added together with all of its leading
+ * directories, and a path is only reported as possibly changed if all of those keys are present.
+ * <p>
+ * A negative answer is definite; a positive answer has to be confirmed with a diff.
+ */
+public class ChangedPathBloomFilter {
+    static final int NUM_HASHES = 7;
+    static final int BITS_PER_ENTRY = 10;
+    static final int MAX_CHANGED_PATHS = 512;
+
+    private static final int SEED_0 = 0x293ae76f;
+    private static final int SEED_1 = 0x7e646e2c;
+
+    private final byte[] data;
+    private final int version;
+    private final int numHashes;
+
+    /**
+     * @param data The filter bits.
+     * @param version The hash version: {@code 1} reproduces the sign-extension of Git's original murmur3
+     *                implementation for non-ASCII paths, {@code 2} is the corrected one.
+     * @param numHashes The number of hash functions the filter was built with.
+     */
+    public ChangedPathBloomFilter(byte[] data, int version, int numHashes) {
+        this.data = data;
+        this.version = version;
+        this.numHashes = numHashes;
+    }
+
+    /**
+     * Builds a version 2 filter the same way Git does: paths plus their leading directories, {@value #BITS_PER_ENTRY}
+     * bits per key and {@value #NUM_HASHES} hashes. Commits changing more than {@value #MAX_CHANGED_PATHS} keys get
+     * a saturated filter that matches every path.
+     *
+     * @param changedPaths The paths changed by the commit.
+     * @return The filter.
+     */
+    public static ChangedPathBloomFilter of(Collection<String> changedPaths) {
+        return of(changedPaths, 2);
+    }
+
+    static ChangedPathBloomFilter of(Collection<String> changedPaths, int version) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String path : changedPaths) {
+            if (path.isEmpty()) continue;
+            keys.add(path);
+            for (int slash = path.lastIndexOf('/'); slash > 0; slash = path.lastIndexOf('/', slash - 1)) {
+                keys.add(path.substring(0, slash));
+            }
+        }
+
+        if (keys.size() > MAX_CHANGED_PATHS) return saturated();
+
+        byte[] data = new byte[Math.max(1, (keys.size() * BITS_PER_ENTRY + Byte.SIZE - 1) / Byte.SIZE)];
+        ChangedPathBloomFilter filter = new ChangedPathBloomFilter(data, version, NUM_HASHES);
+        keys.forEach(filter::add);
+        return filter;
+    }
+
+    /**
+     * @return A filter that matches every path, used when the changed paths of a commit are too many or unknown.
+     */
+    public static ChangedPathBloomFilter saturated() {
+        return new ChangedPathBloomFilter(new byte[]{(byte) 0xff}, 2, NUM_HASHES);
+    }
+
+    /**
+     * Checks whether the commit may have changed the given path.
+     *
+     * @param path A file or directory path relative to the repository root, without a trailing slash.
+     * @return {@code false} if the commit definitely did not change the path, {@code true} otherwise.
+     */
+    public boolean mightContain(String path) {
+        if (data.length == 0) return true;
+
+        if (!containsKey(path)) return false;
+        for (int slash = path.lastIndexOf('/'); slash > 0; slash = path.lastIndexOf('/', slash - 1)) {
+            if (!containsKey(path.substring(0, slash))) return false;
+        }
+        return true;
+    }
+
+    public byte[] toByteArray() {
+        return data.clone();
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int getNumHashes() {
+        return numHashes;
+    }
+
+    private void add(String key) {
+        long bits = (long) data.length * Byte.SIZE;
+        for (long hash : hashes(key)) {
+            long position = hash % bits;
+            data[(int) (position / Byte.SIZE)] |= (byte) (1 << (position % Byte.SIZE));
+        }
+    }
+
+    private boolean containsKey(String key) {
+        long bits = (long) data.length * Byte.SIZE;
+        for (long hash : hashes(key)) {
+            long position = hash % bits;
+            if ((data[(int) (position / Byte.SIZE)] & (1 << (position % Byte.SIZE))) == 0) return false;
+        }
+        return true;
+    }
+
+    private long[] hashes(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        int hash0 = murmur3(SEED_0, bytes, version == 1);
+        int hash1 = murmur3(SEED_1, bytes, version == 1);
+
+        long[] hashes = new long[numHashes];
+        for (int i = 0; i < numHashes; i++) {
+            hashes[i] = Integer.toUnsignedLong(hash0 + i * hash1);
+        }
+        return hashes;
+    }
+
+    /**
+     * Seeded 32-bit murmur3 as implemented in Git's {@code bloom.c}. With {@code signedBytes}, bytes are
+     * sign-extended before mixing, matching version 1 filters written on platforms where {@code char} is signed.
+     */
+    static int murmur3(int seed, byte[] data, boolean signedBytes) {
+        final int c1 = 0xcc9e2d51;
+        final int c2 = 0x1b873593;
+        int length4 = data.length / 4;
+
+        for (int i = 0; i < length4; i++) {
+            int k = toInt(data[4 * i], signedBytes)
+                    | toInt(data[4 * i + 1], signedBytes) << 8
+                    | toInt(data[4 * i + 2], signedBytes) << 16
+                    | toInt(data[4 * i + 3], signedBytes) << 24;
+            k *= c1;
+            k = Integer.rotateLeft(k, 15);
+            k *= c2;
+            seed ^= k;
+            seed = Integer.rotateLeft(seed, 13) * 5 + 0xe6546b64;
+        }
+
+        int tail = length4 * 4;
+        int k1 = 0;
+        switch (data.length & 3) {
+            case 3:
+                k1 ^= toInt(data[tail + 2], signedBytes) << 16;
+            case 2:
+                k1 ^= toInt(data[tail + 1], signedBytes) << 8;
+            case 1:
+                k1 ^= toInt(data[tail], signedBytes);
+                k1 *= c1;
+                k1 = Integer.rotateLeft(k1, 15);
+                k1 *= c2;
+                seed ^= k1;
+        }
+
+        seed ^= data.length;
+        seed ^= seed >>> 16;
+        seed *= 0x85ebca6b;
+        seed ^= seed >>> 13;
+        seed *= 0xc2b2ae35;
+        seed ^= seed >>> 16;
+        return seed;
+    }
+
+    private static int toInt(byte value, boolean signed) {
+        return signed ? value : value & 0xff;
+    }
+}
@@ -0,0 +1,215 @@
+package org.example;
+
+import org.example.exceptions.GitCommandException;
+import org.example.exceptions.GitHubApiException;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-commit changed-path Bloom filters for both sides of a comparison, used to answer "did these commits touch
+ * these paths" without diffing.
+ * <p>
+ * Filters are taken from Git's commit-graph when it was written with {@code --changed-paths}. Missing local filters
+ * are computed from a single {@code git log --name-only} over the range in question, missing remote filters from
+ * the files of each commit on GitHub. Computed filters are kept in memory and persisted to a cache file by
+ * {@link #save()}, so they are computed only once per commit.
+ */
+public class ChangedPathIndex {
+    private static final int MAGIC = 0x47424346;
+    private static final int VERSION = 1;
+    private static final int SHA_BYTES = 20;
+
+    static final int MAX_REMOTE_FETCHES = 8;
+    static final int GITHUB_MAX_COMMIT_FILES = 300;
+
+    private final GitCommandExecutor git;
+    private final GitHubApiClient github;
+    private final Path cacheFile;
+    private final Map<String, ChangedPathBloomFilter> filters = new ConcurrentHashMap<>();
+
+    private Optional<CommitGraphReader> commitGraph;
+
+    /**
+     * @param git The executor of the local repository.
+     * @param github The client of the remote repository.
+     * @param cacheFile The file computed filters are loaded from and saved to, or {@code null} to keep them in memory only.
+     * @throws IOException If the cache file exists but could not be read.
+     */
+    public ChangedPathIndex(GitCommandExecutor git, GitHubApiClient github, Path cacheFile) throws IOException {
+        this.git = git;
+        this.github = github;
+        this.cacheFile = cacheFile;
+
+        if (cacheFile != null && Files.isRegularFile(cacheFile)) load(cacheFile);
+    }
+
+    /**
+     * Determines which of the given paths may have been changed by the local commits between {@code base} and
+     * {@code head}.
+     *
+     * @param base The SHA of the merge base.
+     * @param head The SHA of the local head.
+     * @param commits The commits between the merge base (exclusive) and the head (inclusive).
+     * @param paths The paths of interest.
+     * @return The paths that may have been changed; paths not contained were definitely not changed.
+     * @throws GitCommandException If an error occurs while computing missing filters.
+     */
+    public Set<String> mightBeTouchedLocally(String base, String head, List<String> commits, Collection<String> paths) throws GitCommandException {
+        if (commits.stream().anyMatch(commit -> findFilter(commit) == null)) {
+            git.getChangedFilesPerCommit(base + ".." + head)
+                    .forEach((commit, files) -> filters.put(commit, ChangedPathBloomFilter.of(files)));
+        }
+        return mightBeTouched(commits, paths);
+    }
+
+    /**
+     * Determines which of the given paths may have been changed by the given remote commits. Filters missing for at
+     * most {@value #MAX_REMOTE_FETCHES} commits are computed on the fly; with more missing filters a single compare
+     * request is cheaper, so every path is reported as possibly changed.
+     *
+     * @param commits The commits between the merge base (exclusive) and the remote head (inclusive).
+     * @param paths The paths of interest.
+     * @return The paths that may have been changed; paths not contained were definitely not changed.
+     * @throws GitHubApiException If an error occurs while fetching the files of a commit.
+     *
+     * @see #buildRemote(List)
+     */
+    public Set<String> mightBeTouchedRemotely(List<String> commits, Collection<String> paths) throws GitHubApiException {
+        return mightBeTouchedRemotely(commits, paths, github.newDeadline());
+    }
+
+    /**
+     * Like {@link #mightBeTouchedRemotely(List, Collection)}, with the commit files fetched within the budget of the
+     * calling operation.
+     *
+     * @param commits The commits between the merge base (exclusive) and the remote head (inclusive).
+     * @param paths The paths of interest.
+     * @param deadline The deadline of the calling operation, as returned by {@link GitHubApiClient#newDeadline()}.
+     * @return The paths that may have been changed; paths not contained were definitely not changed.
+     * @throws GitHubApiException If an error occurs while fetching the files of a commit.
+     */
+    public Set<String> mightBeTouchedRemotely(List<String> commits, Collection<String> paths, long deadline) throws GitHubApiException {
+        List<String> missing = commits.stream().filter(commit -> findFilter(commit) == null).toList();
+        if (missing.size() > MAX_REMOTE_FETCHES) return new LinkedHashSet<>(paths);
+
+        buildRemote(missing, deadline);
+        return mightBeTouched(commits, paths);
+    }
+
+    /**
+     * Computes and caches the filters of the given remote commits that are not known yet.
+     *
+     * @param commits The SHAs of remote commits.
+     * @throws GitHubApiException If an error occurs while fetching the files of a commit.
+     */
+    public void buildRemote(List<String> commits) throws GitHubApiException {
+        buildRemote(commits, github.newDeadline());
+    }
+
+    private void buildRemote(List<String> commits, long deadline) throws GitHubApiException {
+        for (String commit : commits) {
+            if (findFilter(commit) != null) continue;
+
+            List<String> files = github.getCommitFiles(commit, deadline);
+            filters.put(commit, files.size() >= GITHUB_MAX_COMMIT_FILES
+                    ? ChangedPathBloomFilter.saturated()
+                    : ChangedPathBloomFilter.of(files));
+        }
+    }
+
+    /**
+     * Writes all computed filters to the cache file.
+     *
+     * @throws IOException If the cache file could not be written.
+     */
+    public void save() throws IOException {
+        if (cacheFile == null) return;
+
+        Map<String, ChangedPathBloomFilter> persistent = new TreeMap<>();
+        filters.forEach((commit, filter) -> {
+            if (HistorySnapshot.isSha(commit)) persistent.put(commit, filter);
+        });
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(cacheFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(persistent.size());
+            for (Map.Entry<String, ChangedPathBloomFilter> entry : persistent.entrySet()) {
+                byte[] data = entry.getValue().toByteArray();
+                out.write(HexFormat.of().parseHex(entry.getKey()));
+                out.writeByte(entry.getValue().getVersion());
+                out.writeByte(entry.getValue().getNumHashes());
+                out.writeInt(data.length);
+                out.write(data);
+            }
+        }
+    }
+
+    private Set<String> mightBeTouched(List<String> commits, Collection<String> paths) {
+        Set<String> remaining = new LinkedHashSet<>(paths);
+        Set<String> touched = new LinkedHashSet<>();
+
+        for (String commit : commits) {
+            if (remaining.isEmpty()) break;
+
+            ChangedPathBloomFilter filter = findFilter(commit);
+            for (Iterator<String> it = remaining.iterator(); it.hasNext(); ) {
+                String path = it.next();
+                if (filter == null || filter.mightContain(path)) {
+                    touched.add(path);
+                    it.remove();
+                }
+            }
+        }
+        return touched;
+    }
+
+    private ChangedPathBloomFilter findFilter(String commit) {
+        ChangedPathBloomFilter filter = filters.get(commit);
+        if (filter != null || !HistorySnapshot.isSha(commit)) return filter;
+
+        return getCommitGraph().flatMap(graph -> graph.getFilter(commit)).orElse(null);
+    }
+
+    private synchronized Optional<CommitGraphReader> getCommitGraph() {
+        if (commitGraph == null) {
+            try {
+                commitGraph = CommitGraphReader.open(git.getGitDirectory());
+            } catch (GitCommandException | IOException e) {
+                commitGraph = Optional.empty();
+            }
+        }
+        return commitGraph;
+    }
+
+    private void load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Not a changed-path filter cache or unsupported version: " + file);
+            }
+
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                byte[] sha = new byte[SHA_BYTES];
+                buffer.get(sha);
+                int version = buffer.get();
+                int numHashes = buffer.get();
+                byte[] data = new byte[buffer.getInt()];
+                buffer.get(data);
+                filters.put(HexFormat.of().formatHex(sha), new ChangedPathBloomFilter(data, version, numHashes));
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt changed-path filter cache: " + file, e);
+        }
+    }
+}
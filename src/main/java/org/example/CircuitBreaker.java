@@ -0,0 +1,68 @@
+package org.example;
+
+import java.time.Duration;
+
+/**
+ * Minimal consecutive-failure circuit breaker. After {@code failureThreshold} consecutive failures it rejects
+ * requests for {@code openDuration}, then lets a single trial request through: its success closes the breaker,
+ * its failure opens it again. A trial that ends without either, because its thread was interrupted or it failed
+ * with an unchecked exception, must be {@linkplain #release() released} so that the next request can become the trial.
+ */
+public class CircuitBreaker {
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean open;
+    private Thread trial;
+
+    /**
+     * @param failureThreshold Consecutive failures that open the breaker; {@code 0} disables it.
+     * @param openDuration How long the breaker stays open before a trial request is allowed.
+     */
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    /**
+     * @return {@code true} if a request may be sent now.
+     */
+    public synchronized boolean allowRequest() {
+        if (failureThreshold <= 0 || !open) return true;
+        if (trial != null || System.nanoTime() - openedAt < openNanos) return false;
+
+        trial = Thread.currentThread();
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        open = false;
+        trial = null;
+    }
+
+    public synchronized void onFailure() {
+        if (failureThreshold <= 0) return;
+
+        consecutiveFailures++;
+        if (trial != null || consecutiveFailures >= failureThreshold) {
+            open = true;
+            openedAt = System.nanoTime();
+            trial = null;
+        }
+    }
+
+    /**
+     * Gives up the trial request of the calling thread without an outcome, leaving the breaker open but ready for
+     * the next trial. Does nothing if the calling thread holds no trial, so it is safe to call on every exit path.
+     */
+    public synchronized void release() {
+        if (trial == Thread.currentThread()) trial = null;
+    }
+
+    public synchronized boolean isOpen() {
+        return open;
+    }
+}
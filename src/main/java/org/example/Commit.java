@@ -2,9 +2,12 @@ package org.example;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
+import java.util.List;
+
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class Commit {
     private String sha;
+    private List<Commit> parents;
 
     public String getSha() {
         return sha;
@@ -14,4 +17,12 @@ public class Commit {
         this.sha = sha;
     }
 
+    public List<Commit> getParents() {
+        return parents;
+    }
+
+    public void setParents(List<Commit> parents) {
+        this.parents = parents;
+    }
+
 }
@@ -0,0 +1,142 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads the changed-path Bloom filters Git stores in its commit-graph ({@code git commit-graph write --changed-paths}).
+ * Both a single {@code objects/info/commit-graph} file and split graphs listed in
+ * {@code objects/info/commit-graphs/commit-graph-chain} are supported. Graph files are memory mapped and looked up
+ * in place.
+ */
+public class CommitGraphReader {
+    private static final int SIGNATURE = 0x43475048;
+    private static final int CHUNK_OID_FANOUT = 0x4f494446;
+    private static final int CHUNK_OID_LOOKUP = 0x4f49444c;
+    private static final int CHUNK_BLOOM_INDEXES = 0x42494458;
+    private static final int CHUNK_BLOOM_DATA = 0x42444154;
+    private static final int SHA_BYTES = 20;
+    private static final int BLOOM_HEADER_BYTES = 12;
+
+    private record Layer(ByteBuffer buffer, int commitCount, int fanoutOffset, int lookupOffset,
+                         int indexesOffset, int dataOffset, int version, int numHashes) {}
+
+    private final List<Layer> layers;
+
+    private CommitGraphReader(List<Layer> layers) {
+        this.layers = layers;
+    }
+
+    /**
+     * Opens the commit-graph of a repository.
+     *
+     * @param gitDirectory The Git directory (usually {@code .git}) of the repository.
+     * @return The reader, or an empty Optional if the repository has no commit-graph with changed-path filters.
+     * @throws IOException If a commit-graph file exists but could not be read.
+     */
+    public static Optional<CommitGraphReader> open(Path gitDirectory) throws IOException {
+        Path info = gitDirectory.resolve("objects").resolve("info");
+        List<Path> files = new ArrayList<>();
+
+        Path chain = info.resolve("commit-graphs").resolve("commit-graph-chain");
+        if (Files.isRegularFile(chain)) {
+            for (String hash : Files.readAllLines(chain)) {
+                if (!hash.isBlank()) files.add(info.resolve("commit-graphs").resolve("graph-" + hash.trim() + ".graph"));
+            }
+        } else if (Files.isRegularFile(info.resolve("commit-graph"))) {
+            files.add(info.resolve("commit-graph"));
+        }
+
+        List<Layer> layers = new ArrayList<>();
+        for (Path file : files) {
+            Layer layer = readLayer(file);
+            if (layer != null) layers.add(layer);
+        }
+        return layers.isEmpty() ? Optional.empty() : Optional.of(new CommitGraphReader(layers));
+    }
+
+    /**
+     * @param sha The SHA of a commit.
+     * @return The changed-path filter of the commit, or an empty Optional if the commit is not in the graph
+     *         or the graph layer containing it was written without filters.
+     */
+    public Optional<ChangedPathBloomFilter> getFilter(String sha) {
+        byte[] key = HexFormat.of().parseHex(sha);
+
+        for (Layer layer : layers) {
+            int position = find(layer, key);
+            if (position < 0) continue;
+
+            ByteBuffer buffer = layer.buffer();
+            int start = position == 0 ? 0 : buffer.getInt(layer.indexesOffset() + (position - 1) * Integer.BYTES);
+            int end = buffer.getInt(layer.indexesOffset() + position * Integer.BYTES);
+
+            byte[] data = new byte[end - start];
+            buffer.get(layer.dataOffset() + BLOOM_HEADER_BYTES + start, data);
+            return Optional.of(new ChangedPathBloomFilter(data, layer.version(), layer.numHashes()));
+        }
+        return Optional.empty();
+    }
+
+    private static Layer readLayer(Path file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.getInt(0) != SIGNATURE || buffer.get(4) != 1 || buffer.get(5) != 1) {
+            throw new IOException("Unsupported commit-graph file: " + file);
+        }
+
+        int chunkCount = buffer.get(6) & 0xff;
+        int fanout = -1, lookup = -1, indexes = -1, data = -1;
+        for (int i = 0; i < chunkCount; i++) {
+            int entry = 8 + i * 12;
+            int id = buffer.getInt(entry);
+            int offset = (int) buffer.getLong(entry + 4);
+            if (id == CHUNK_OID_FANOUT) fanout = offset;
+            else if (id == CHUNK_OID_LOOKUP) lookup = offset;
+            else if (id == CHUNK_BLOOM_INDEXES) indexes = offset;
+            else if (id == CHUNK_BLOOM_DATA) data = offset;
+        }
+
+        if (fanout < 0 || lookup < 0 || indexes < 0 || data < 0) return null;
+
+        int commitCount = buffer.getInt(fanout + 255 * Integer.BYTES);
+        int version = buffer.getInt(data);
+        int numHashes = buffer.getInt(data + 4);
+        return new Layer(buffer, commitCount, fanout, lookup, indexes, data, version, numHashes);
+    }
+
+    private static int find(Layer layer, byte[] key) {
+        ByteBuffer buffer = layer.buffer();
+        int first = key[0] & 0xff;
+        int low = first == 0 ? 0 : buffer.getInt(layer.fanoutOffset() + (first - 1) * Integer.BYTES);
+        int high = buffer.getInt(layer.fanoutOffset() + first * Integer.BYTES) - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(buffer, layer.lookupOffset() + mid * SHA_BYTES, key);
+            if (cmp < 0) low = mid + 1;
+            else if (cmp > 0) high = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    private static int compare(ByteBuffer buffer, int offset, byte[] key) {
+        for (int i = 0; i < SHA_BYTES; i++) {
+            int cmp = Integer.compare(buffer.get(offset + i) & 0xff, key[i] & 0xff);
+            if (cmp != 0) return cmp;
+        }
+        return 0;
+    }
+}
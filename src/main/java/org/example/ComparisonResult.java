@@ -0,0 +1,12 @@
+package org.example;
+
+import java.util.List;
+
+/**
+ * Result of a planned comparison.
+ *
+ * @param modifiedFiles File paths modified in both the local and the remote branch since their merge base.
+ * @param plan The plan that was used to obtain the remote side of the comparison.
+ */
+public record ComparisonResult(List<String> modifiedFiles, SourcePlan plan) {
+}
@@ -0,0 +1,212 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.example.exceptions.GitCommandException;
+import org.example.exceptions.GitHubApiException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Lightweight HTTP service exposing {@link BranchComparator#compareModifiedFiles(String, String)} for several repositories.
+ * <p>
+ * {@code GET /repos/{name}/compare?local={localBranch}&remote={remoteBranch}} answers with
+ * {@code {"files": [...]}}. Requests are handled on virtual threads, while comparisons themselves are limited to
+ * a fixed number of concurrent workers. Identical requests that arrive while a comparison is running share its
+ * result instead of starting another one. New comparisons are rejected with {@code 503 Service Unavailable} when
+ * no worker becomes free within the queue timeout or when the GitHub rate limit of the repository is nearly used up.
+ * Branch names are passed to {@code git} and into GitHub URL paths, so names that
+ * {@code git check-ref-format --branch} would reject are answered with {@code 400 Bad Request}.
+ */
+public class ComparisonServer implements AutoCloseable {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private record Repository(BranchComparator comparator, GitHubApiClient github) {}
+
+    private final Map<String, Repository> repositories = new ConcurrentHashMap<>();
+    private final SingleFlight<String, List<String>> inFlight = new SingleFlight<>();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Semaphore workers;
+    private final Duration queueTimeout;
+    private final int minRateLimitRemaining;
+
+    /**
+     * @param address The address to listen on; port {@code 0} picks a free port.
+     * @param maxConcurrentComparisons Maximum number of comparisons computed at the same time.
+     * @param queueTimeout How long a new comparison may wait for a free worker before it is rejected.
+     * @param minRateLimitRemaining New comparisons are rejected while the GitHub rate limit of the repository
+     *                              has fewer requests left than this.
+     * @throws IOException If the server socket could not be bound.
+     */
+    public ComparisonServer(InetSocketAddress address, int maxConcurrentComparisons,
+                            Duration queueTimeout, int minRateLimitRemaining) throws IOException {
+        this.server = HttpServer.create(address, 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.workers = new Semaphore(maxConcurrentComparisons);
+        this.queueTimeout = queueTimeout;
+        this.minRateLimitRemaining = minRateLimitRemaining;
+
+        server.setExecutor(executor);
+        server.createContext("/repos/", this::handle);
+    }
+
+    /**
+     * Makes a repository available under {@code /repos/{name}/compare}.
+     *
+     * @param name The name used in the request path.
+     * @param comparator The comparator for the repository.
+     * @param github The GitHub client used by the comparator, consulted for the remaining rate limit.
+     */
+    public void register(String name, BranchComparator comparator, GitHubApiClient github) {
+        repositories.put(name, new Repository(comparator, github));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * @return The address the server is listening on.
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                respond(exchange, 405, Map.of("error", "Only GET is supported"));
+                return;
+            }
+
+            String[] segments = exchange.getRequestURI().getPath().split("/");
+            if (segments.length != 4 || !segments[3].equals("compare")) {
+                respond(exchange, 404, Map.of("error", "Unknown endpoint"));
+                return;
+            }
+
+            Repository repository = repositories.get(segments[2]);
+            if (repository == null) {
+                respond(exchange, 404, Map.of("error", "Unknown repository: " + segments[2]));
+                return;
+            }
+
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String local = query.get("local");
+            String remote = query.get("remote");
+            if (local == null || remote == null) {
+                respond(exchange, 400, Map.of("error", "Query parameters 'local' and 'remote' are required"));
+                return;
+            }
+            if (!isValidBranchName(local) || !isValidBranchName(remote)) {
+                respond(exchange, 400, Map.of("error", "Invalid branch name"));
+                return;
+            }
+
+            try {
+                List<String> files = compare(segments[2], repository, local, remote);
+                respond(exchange, 200, Map.of("files", files));
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RejectedExecutionException) {
+                    exchange.getResponseHeaders().set("Retry-After", String.valueOf(retryAfterSeconds(repository)));
+                    respond(exchange, 503, Map.of("error", cause.getMessage()));
+                } else {
+                    int status = cause instanceof GitHubApiException ? 502 : 500;
+                    respond(exchange, status, Map.of("error", String.valueOf(cause.getMessage())));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                respond(exchange, 503, Map.of("error", "Interrupted"));
+            }
+        }
+    }
+
+    private List<String> compare(String name, Repository repository, String local, String remote) throws ExecutionException, InterruptedException {
+        String key = String.join("\u0000", name, local, remote);
+        return inFlight.execute(key, () -> computeAdmitted(repository, local, remote));
+    }
+
+    private List<String> computeAdmitted(Repository repository, String local, String remote) throws GitCommandException, GitHubApiException, InterruptedException {
+        int remaining = repository.github().getRateLimitRemaining();
+        if (remaining >= 0 && remaining < minRateLimitRemaining) {
+            throw new RejectedExecutionException("GitHub rate limit nearly exhausted");
+        }
+
+        if (!workers.tryAcquire(queueTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            throw new RejectedExecutionException("All comparison workers are busy");
+        }
+        try {
+            return repository.comparator().compareModifiedFiles(local, remote);
+        } finally {
+            workers.release();
+        }
+    }
+
+    private long retryAfterSeconds(Repository repository) {
+        int remaining = repository.github().getRateLimitRemaining();
+        long reset = repository.github().getRateLimitReset();
+        if (remaining >= 0 && remaining < minRateLimitRemaining && reset > 0) {
+            return Math.max(1, reset - Instant.now().getEpochSecond());
+        }
+        return Math.max(1, queueTimeout.toSeconds());
+    }
+
+    /**
+     * Applies the rules of {@code git check-ref-format --branch}: no leading {@code -}, no control characters, space,
+     * {@code ~ ^ : ? * [ \} or <code>@{</code>, no {@code ..}, no empty component or component starting with
+     * {@code .} or ending with {@code .lock}, and no trailing {@code .}; {@code @} alone is not a name either.
+     */
+    static boolean isValidBranchName(String name) {
+        if (name.isEmpty() || name.equals("@") || name.startsWith("-") || name.endsWith(".")) return false;
+        if (name.contains("..") || name.contains("@{")) return false;
+        for (char c : name.toCharArray()) {
+            if (c < 0x20 || c == 0x7f || " ~^:?*[\\".indexOf(c) >= 0) return false;
+        }
+        for (String component : name.split("/", -1)) {
+            if (component.isEmpty() || component.startsWith(".") || component.endsWith(".lock")) return false;
+        }
+        return true;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) return query;
+
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator <= 0) continue;
+            query.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = MAPPER.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+}
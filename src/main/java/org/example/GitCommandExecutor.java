@@ -3,13 +3,17 @@ package org.example;
 import org.example.exceptions.GitCommandException;
 
 import java.io.*;
-import java.util.Arrays;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 public class GitCommandExecutor {
 
     private final File repo;
     private final CommandUtils commandUtils;
+    private final SingleFlight<String, List<String>> flights = new SingleFlight<>();
 
     public GitCommandExecutor(String repoPath, CommandUtils commandUtils) {
         repo = new File(repoPath);
@@ -18,6 +22,7 @@ public class GitCommandExecutor {
 
     /**
      * Retrieves the commit history for the specified branch.
+     * Concurrent calls for the same branch share a single {@code git rev-list} process.
      *
      * @param branchName The name of the branch to retrieve commits for.
      * @return List of commit SHA hashes as strings in reverse chronological order (most recent first).
@@ -25,8 +30,38 @@ public class GitCommandExecutor {
      * This exception wraps underlying exceptions like {@link IOException} and {@link InterruptedException}
      */
     public List<String> getCommitHistory(String branchName) throws GitCommandException {
+        return shared("rev-list:" + branchName, () -> readCommitHistory(branchName));
+    }
+
+    /**
+     * Retrieves the commits of the specified branch that changed paths matching the filter, with the filter passed
+     * to {@code git rev-list} as pathspecs so that no other commit is listed.
+     *
+     * @param branchName The name of the branch to retrieve commits for.
+     * @param filter The paths of interest.
+     * @return List of commit SHA hashes as strings in reverse chronological order (most recent first); empty if no
+     *         commit of the branch changed a matching path.
+     * @throws GitCommandException If the Git command fails or an I/O or interruption error occurs during the execution.
+     * This exception wraps underlying exceptions like {@link IOException} and {@link InterruptedException}
+     */
+    public List<String> getCommitHistory(String branchName, PathFilter filter) throws GitCommandException {
+        if (filter.isAll()) return getCommitHistory(branchName);
+
+        return shared("rev-list:" + branchName + ":" + filter, () -> readCommitHistory(branchName, filter.toPathspecs()));
+    }
+
+    private List<String> readCommitHistory(String branchName) throws GitCommandException {
+        return readCommitHistory(branchName, List.of());
+    }
+
+    private List<String> readCommitHistory(String branchName, List<String> pathspecs) throws GitCommandException {
             try {
-                Process process = commandUtils.executeCommand(repo, List.of("git", "rev-list", branchName));
+                List<String> command = new ArrayList<>(List.of("git", "rev-list", branchName));
+                if (!pathspecs.isEmpty()) {
+                    command.add("--");
+                    command.addAll(pathspecs);
+                }
+                Process process = commandUtils.executeCommand(repo, command);
 
                 String output = commandUtils.readOutput(process.getInputStream());
                 String errorOutput = commandUtils.readOutput(process.getErrorStream());
@@ -36,6 +71,8 @@ public class GitCommandExecutor {
                     throw new GitCommandException(String.format("Git rev-list command failed for branch: %s. Error: %s", branchName, errorOutput));
                 }
 
+                if (!pathspecs.isEmpty() && output.isBlank()) return List.of();
+
                 return Arrays.asList(output.split("\n"));
             } catch (IOException | InterruptedException e) {
                 throw new GitCommandException(String.format("Git rev-list command failed for branch: %s. Error: %s", branchName, e));
@@ -44,16 +81,63 @@ public class GitCommandExecutor {
 
     /**
      * Retrieves the list of files modified between two commits.
+     * Concurrent calls for the same pair of commits share a single {@code git diff} process.
      *
      * @param commit1 The SHA of the first commit in the comparison.
      * @param commit2 The SHA of the second commit in the comparison.
-     * @return List of modified file paths.
+     * @return List of modified file paths; empty if the two commits have the same tree.
      * @throws GitCommandException If the Git command fails or an I/O or interruption error occurs during the execution.
      * This exception wraps underlying exceptions like {@link IOException} and {@link InterruptedException}
      */
     public List<String> getModifiedFilesNames(String commit1, String commit2) throws GitCommandException {
+        return shared("diff:" + commit1 + ".." + commit2, () -> readModifiedFilesNames(commit1, commit2, List.of()));
+    }
+
+    /**
+     * Retrieves the list of files modified between two commits, limited to the given paths.
+     *
+     * @param commit1 The SHA of the first commit in the comparison.
+     * @param commit2 The SHA of the second commit in the comparison.
+     * @param paths The file paths to inspect.
+     * @return List of modified file paths contained in {@code paths}.
+     * @throws GitCommandException If the Git command fails or an I/O or interruption error occurs during the execution.
+     * This exception wraps underlying exceptions like {@link IOException} and {@link InterruptedException}
+     */
+    public List<String> getModifiedFilesNames(String commit1, String commit2, Collection<String> paths) throws GitCommandException {
+        if (paths.isEmpty()) return List.of();
+
+        List<String> pathspecs = paths.stream().map(path -> ":(literal)" + path).toList();
+        return shared("diff:" + commit1 + ".." + commit2 + ":" + String.join("\u0000", pathspecs),
+                () -> readModifiedFilesNames(commit1, commit2, pathspecs));
+    }
+
+    /**
+     * Retrieves the list of files modified between two commits that match the filter, with the filter passed to
+     * {@code git diff} as pathspecs so that the rest of the tree is not compared at all.
+     *
+     * @param commit1 The SHA of the first commit in the comparison.
+     * @param commit2 The SHA of the second commit in the comparison.
+     * @param filter The paths of interest.
+     * @return List of modified file paths matching the filter.
+     * @throws GitCommandException If the Git command fails or an I/O or interruption error occurs during the execution.
+     * This exception wraps underlying exceptions like {@link IOException} and {@link InterruptedException}
+     */
+    public List<String> getModifiedFilesNames(String commit1, String commit2, PathFilter filter) throws GitCommandException {
+        if (filter.isAll()) return getModifiedFilesNames(commit1, commit2);
+
+        List<String> pathspecs = filter.toPathspecs();
+        return shared("diff:" + commit1 + ".." + commit2 + ":" + String.join("\u0000", pathspecs),
+                () -> readModifiedFilesNames(commit1, commit2, pathspecs));
+    }
+
+    private List<String> readModifiedFilesNames(String commit1, String commit2, List<String> pathspecs) throws GitCommandException {
         try {
-            Process process = commandUtils.executeCommand(repo, List.of("git", "diff", "--name-only", commit1, commit2));
+            List<String> command = new ArrayList<>(List.of("git", "diff", "--name-only", commit1, commit2));
+            if (!pathspecs.isEmpty()) {
+                command.add("--");
+                command.addAll(pathspecs);
+            }
+            Process process = commandUtils.executeCommand(repo, command);
 
             String output = commandUtils.readOutput(process.getInputStream());
             String errorOutput = commandUtils.readOutput(process.getErrorStream());
@@ -63,9 +147,321 @@ public class GitCommandExecutor {
                 throw new GitCommandException(String.format("Git diff --name-only command failed for commits: %s and %s. Error: %s", commit1, commit2, errorOutput));
             }
 
-            return Arrays.asList(output.split("\n"));
+            return output.isEmpty() ? List.of() : Arrays.asList(output.split("\n"));
         } catch (IOException | InterruptedException e) {
             throw new GitCommandException(String.format("Git diff --name-only command failed for commits: %s and %s. Error: %s", commit1, commit2, e));
         }
     }
+
+    /**
+     * Retrieves the ranges of lines changed between two commits for the given paths only. The output of
+     * {@code git diff -U0} is parsed while it is being read, so no patch text is kept in memory. Colors, external
+     * diff drivers and the {@code a/}/{@code b/} path prefixes are forced, so {@code diff.noprefix} and similar user
+     * settings cannot change the output.
+     *
+     * @param commit1 The SHA of the first commit in the comparison.
+     * @param commit2 The SHA of the second commit in the comparison.
+     * @param paths The file paths to inspect.
+     * @return Map from each changed path to the ranges of {@code commit1} lines it changes, in ascending order.
+     *         Binary files are mapped to an empty list.
+     * @throws GitCommandException If the Git command fails or an I/O or interruption error occurs during the execution.
+     * This exception wraps underlying exceptions like {@link IOException} and {@link InterruptedException}
+     */
+    public Map<String, List<LineRange>> getChangedLineRanges(String commit1, String commit2, Collection<String> paths) throws GitCommandException {
+        if (paths.isEmpty()) return new LinkedHashMap<>();
+
+        List<String> command = new ArrayList<>(List.of("git", "-c", "core.quotePath=false", "diff", "-U0", "--no-renames",
+                "--no-color", "--no-ext-diff", "--src-prefix=a/", "--dst-prefix=b/", commit1, commit2, "--"));
+        paths.forEach(path -> command.add(":(literal)" + path));
+
+        try {
+            Process process = commandUtils.executeCommand(repo, command);
+
+            Map<String, List<LineRange>> ranges;
+            try (Reader reader = new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8)) {
+                ranges = HunkParser.parseDiff(reader);
+            }
+            String errorOutput = commandUtils.readOutput(process.getErrorStream());
+
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                throw new GitCommandException(String.format("Git diff -U0 command failed for commits: %s and %s. Error: %s", commit1, commit2, errorOutput));
+            }
+
+            return ranges;
+        } catch (IOException | InterruptedException e) {
+            throw new GitCommandException(String.format("Git diff -U0 command failed for commits: %s and %s. Error: %s", commit1, commit2, e));
+        }
+    }
+
+    private List<String> shared(String key, Callable<List<String>> loader) throws GitCommandException {
+        try {
+            return flights.execute(key, loader);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof GitCommandException cause) throw cause;
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new GitCommandException(String.format("Git command failed: %s", e.getCause()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GitCommandException(String.format("Git command interrupted: %s", e));
+        }
+    }
+
+    /**
+     * Retrieves the files changed by each commit in the given range, every commit being compared with its first parent
+     * (root commits with the empty tree).
+     *
+     * @param range The revision range to list, e.g. {@code base..head}.
+     * @return Map from commit SHA to the paths it changed, in reverse chronological order.
+     * @throws GitCommandException If the Git command fails or an I/O or interruption error occurs during the execution.
+     * This exception wraps underlying exceptions like {@link IOException} and {@link InterruptedException}
+     */
+    public Map<String, List<String>> getChangedFilesPerCommit(String range) throws GitCommandException {
+        try {
+            Process process = commandUtils.executeCommand(repo, List.of("git", "-c", "core.quotePath=false", "log",
+                    "--format=%x00%H", "--name-only", "--no-renames", "--diff-merges=first-parent", range));
+
+            String output = commandUtils.readOutput(process.getInputStream());
+            String errorOutput = commandUtils.readOutput(process.getErrorStream());
+
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                throw new GitCommandException(String.format("Git log --name-only command failed for range: %s. Error: %s", range, errorOutput));
+            }
+
+            Map<String, List<String>> changes = new LinkedHashMap<>();
+            List<String> current = null;
+            for (String line : output.split("\n")) {
+                if (line.startsWith("\u0000")) {
+                    current = new ArrayList<>();
+                    changes.put(line.substring(1).trim(), current);
+                } else if (current != null && !line.isBlank()) {
+                    current.add(line);
+                }
+            }
+            return changes;
+        } catch (IOException | InterruptedException e) {
+            throw new GitCommandException(String.format("Git log --name-only command failed for range: %s. Error: %s", range, e));
+        }
+    }
+
+    /**
+     * Locates the Git directory shared by all worktrees of the repository.
+     *
+     * @return The path of the common Git directory (usually {@code .git}).
+     * @throws GitCommandException If the Git command fails or an I/O or interruption error occurs during the execution.
+     * This exception wraps underlying exceptions like {@link IOException} and {@link InterruptedException}
+     */
+    public Path getGitDirectory() throws GitCommandException {
+        try {
+            Process process = commandUtils.executeCommand(repo, List.of("git", "rev-parse", "--git-common-dir"));
+
+            String output = commandUtils.readOutput(process.getInputStream());
+            String errorOutput = commandUtils.readOutput(process.getErrorStream());
+
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                throw new GitCommandException(String.format("Git rev-parse --git-common-dir command failed. Error: %s", errorOutput));
+            }
+
+            return repo.toPath().resolve(output.trim());
+        } catch (IOException | InterruptedException e) {
+            throw new GitCommandException(String.format("Git rev-parse --git-common-dir command failed. Error: %s", e));
+        }
+    }
+
+    /**
+     * Resolves the given reference (branch name, tag or SHA) to the commit it currently points to.
+     *
+     * @param ref The reference to resolve.
+     * @return The SHA of the commit the reference points to.
+     * @throws GitCommandException If the Git command fails or an I/O or interruption error occurs during the execution.
+     * This exception wraps underlying exceptions like {@link IOException} and {@link InterruptedException}
+     */
+    public String getHeadCommit(String ref) throws GitCommandException {
+        try {
+            Process process = commandUtils.executeCommand(repo, List.of("git", "rev-parse", "--verify", ref + "^{commit}"));
+
+            String output = commandUtils.readOutput(process.getInputStream());
+            String errorOutput = commandUtils.readOutput(process.getErrorStream());
+
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                throw new GitCommandException(String.format("Git rev-parse command failed for ref: %s. Error: %s", ref, errorOutput));
+            }
+
+            return output.trim();
+        } catch (IOException | InterruptedException e) {
+            throw new GitCommandException(String.format("Git rev-parse command failed for ref: %s. Error: %s", ref, e));
+        }
+    }
+
+    /**
+     * Looks up the commit the given reference points to, without failing if it does not exist locally.
+     *
+     * @param ref The reference to resolve (branch name, remote-tracking ref or SHA).
+     * @return Optional containing the SHA of the commit, or an empty Optional if the reference or object
+     *         is not present in the local repository.
+     * @throws GitCommandException If the Git command fails or an I/O or interruption error occurs during the execution.
+     * This exception wraps underlying exceptions like {@link IOException} and {@link InterruptedException}
+     */
+    public Optional<String> findCommit(String ref) throws GitCommandException {
+        try {
+            Process process = commandUtils.executeCommand(repo, List.of("git", "rev-parse", "--verify", "--quiet", ref + "^{commit}"));
+
+            String output = commandUtils.readOutput(process.getInputStream());
+            String errorOutput = commandUtils.readOutput(process.getErrorStream());
+
+            int exitCode = process.waitFor();
+            if (exitCode == 1) return Optional.empty();
+            if (exitCode != 0) {
+                throw new GitCommandException(String.format("Git rev-parse command failed for ref: %s. Error: %s", ref, errorOutput));
+            }
+
+            return Optional.of(output.trim());
+        } catch (IOException | InterruptedException e) {
+            throw new GitCommandException(String.format("Git rev-parse command failed for ref: %s. Error: %s", ref, e));
+        }
+    }
+
+    /**
+     * Counts the commits reachable from the given reference.
+     *
+     * @param ref The reference whose history should be counted.
+     * @return Number of commits reachable from {@code ref}.
+     * @throws GitCommandException If the Git command fails or an I/O or interruption error occurs during the execution.
+     * This exception wraps underlying exceptions like {@link IOException} and {@link InterruptedException}
+     */
+    public int countCommits(String ref) throws GitCommandException {
+        try {
+            Process process = commandUtils.executeCommand(repo, List.of("git", "rev-list", "--count", ref));
+
+            String output = commandUtils.readOutput(process.getInputStream());
+            String errorOutput = commandUtils.readOutput(process.getErrorStream());
+
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                throw new GitCommandException(String.format("Git rev-list --count command failed for ref: %s. Error: %s", ref, errorOutput));
+            }
+
+            return Integer.parseInt(output.trim());
+        } catch (IOException | InterruptedException | NumberFormatException e) {
+            throw new GitCommandException(String.format("Git rev-list --count command failed for ref: %s. Error: %s", ref, e));
+        }
+    }
+
+    /**
+     * Checks whether the first commit is an ancestor of (or equal to) the second commit.
+     *
+     * @param ancestor The SHA of the potential ancestor commit.
+     * @param descendant The SHA of the potential descendant commit.
+     * @return {@code true} if {@code ancestor} is reachable from {@code descendant}, {@code false} otherwise.
+     * @throws GitCommandException If the Git command fails or an I/O or interruption error occurs during the execution.
+     * This exception wraps underlying exceptions like {@link IOException} and {@link InterruptedException}
+     */
+    public boolean isAncestor(String ancestor, String descendant) throws GitCommandException {
+        try {
+            Process process = commandUtils.executeCommand(repo, List.of("git", "merge-base", "--is-ancestor", ancestor, descendant));
+
+            String errorOutput = commandUtils.readOutput(process.getErrorStream());
+
+            int exitCode = process.waitFor();
+            if (exitCode > 1) {
+                throw new GitCommandException(String.format("Git merge-base --is-ancestor command failed for commits: %s and %s. Error: %s", ancestor, descendant, errorOutput));
+            }
+
+            return exitCode == 0;
+        } catch (IOException | InterruptedException e) {
+            throw new GitCommandException(String.format("Git merge-base --is-ancestor command failed for commits: %s and %s. Error: %s", ancestor, descendant, e));
+        }
+    }
+
+    /**
+     * Finds the best common ancestor of two commits.
+     *
+     * @param commit1 The SHA of the first commit.
+     * @param commit2 The SHA of the second commit.
+     * @return Optional containing the SHA of the merge base, or an empty Optional if the commits share no history.
+     * @throws GitCommandException If the Git command fails or an I/O or interruption error occurs during the execution.
+     * This exception wraps underlying exceptions like {@link IOException} and {@link InterruptedException}
+     */
+    public Optional<String> findMergeBase(String commit1, String commit2) throws GitCommandException {
+        try {
+            Process process = commandUtils.executeCommand(repo, List.of("git", "merge-base", commit1, commit2));
+
+            String output = commandUtils.readOutput(process.getInputStream());
+            String errorOutput = commandUtils.readOutput(process.getErrorStream());
+
+            int exitCode = process.waitFor();
+            if (exitCode == 1 && output.isBlank()) return Optional.empty();
+            if (exitCode != 0) {
+                throw new GitCommandException(String.format("Git merge-base command failed for commits: %s and %s. Error: %s", commit1, commit2, errorOutput));
+            }
+
+            return Optional.of(output.trim());
+        } catch (IOException | InterruptedException e) {
+            throw new GitCommandException(String.format("Git merge-base command failed for commits: %s and %s. Error: %s", commit1, commit2, e));
+        }
+    }
+
+    /**
+     * Lists the branches under the given reference prefix with the commits they point to, using a single
+     * {@code git for-each-ref}. Symbolic references such as {@code origin/HEAD} are skipped.
+     *
+     * @param refPrefix The reference prefix to list, e.g. {@code refs/heads/} or {@code refs/remotes/origin/}.
+     * @return Map from the short branch name to the SHA of its head commit, ordered by name.
+     * @throws GitCommandException If the Git command fails or an I/O or interruption error occurs during the execution.
+     * This exception wraps underlying exceptions like {@link IOException} and {@link InterruptedException}
+     */
+    public Map<String, String> getBranchHeads(String refPrefix) throws GitCommandException {
+        return readBranches(refPrefix, List.of());
+    }
+
+    /**
+     * Lists the branches under the given reference prefix whose history contains at least one of the given commits.
+     *
+     * @param refPrefix The reference prefix to list, e.g. {@code refs/heads/} or {@code refs/remotes/origin/}.
+     * @param commits The SHAs of the commits to look for.
+     * @return The short names of the matching branches.
+     * @throws GitCommandException If the Git command fails or an I/O or interruption error occurs during the execution.
+     * This exception wraps underlying exceptions like {@link IOException} and {@link InterruptedException}
+     */
+    public Set<String> findBranchesContaining(String refPrefix, Collection<String> commits) throws GitCommandException {
+        if (commits.isEmpty()) return Set.of();
+
+        return readBranches(refPrefix, commits.stream().map(commit -> "--contains=" + commit).toList()).keySet();
+    }
+
+    private Map<String, String> readBranches(String refPrefix, List<String> filters) throws GitCommandException {
+        try {
+            List<String> command = new ArrayList<>(List.of("git", "for-each-ref", "--format=%(refname:short)%00%(objectname)%00%(symref)"));
+            command.addAll(filters);
+            command.add(refPrefix);
+            Process process = commandUtils.executeCommand(repo, command);
+
+            String output = commandUtils.readOutput(process.getInputStream());
+            String errorOutput = commandUtils.readOutput(process.getErrorStream());
+
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                throw new GitCommandException(String.format("Git for-each-ref command failed for refs: %s. Error: %s", refPrefix, errorOutput));
+            }
+
+            Map<String, String> heads = new LinkedHashMap<>();
+            for (String line : output.split("\n")) {
+                String[] fields = line.split("\u0000", -1);
+                if (fields.length == 3 && fields[2].isEmpty()) heads.put(fields[0], fields[1]);
+            }
+            return heads;
+        } catch (IOException | InterruptedException e) {
+            throw new GitCommandException(String.format("Git for-each-ref command failed for refs: %s. Error: %s", refPrefix, e));
+        }
+    }
+
+    /**
+     * @return The working directory of the local repository the commands are executed in.
+     */
+    public File getRepository() {
+        return repo;
+    }
 }
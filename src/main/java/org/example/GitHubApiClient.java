@@ -1,37 +1,226 @@
 package org.example;
 
+import java.io.CharArrayReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.exceptions.GitHubApiException;
 
 public class GitHubApiClient {
+    public static final String DEFAULT_API_URL = "https://api.github.com";
+
     private static final Pattern LINK_PATTERN = Pattern.compile("<(.*?)>;\\s*rel=\"next\"");
     private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int COMPARE_CACHE_SIZE = 1024;
 
     private HttpClient client;
     private String repo;
     private String owner;
     private String token;
+    private final String apiUrl;
+    private final ResilientHttpSender sender;
+
+    private final Map<String, CachedHead> heads = new ConcurrentHashMap<>();
+    private final SingleFlight<String, List<String>> flights = new SingleFlight<>();
+    private final Map<String, List<String>> compares = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+            return size() > COMPARE_CACHE_SIZE;
+        }
+    });
+    private final Map<String, List<String>> recordedHistories = new ConcurrentHashMap<>();
+    private final Map<String, List<String>> recordedParents = new ConcurrentHashMap<>();
+    private final Map<String, List<String>> recordedCompares = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+    private volatile HistorySnapshot snapshot;
+
+    private volatile int rateLimitRemaining = -1;
+    private volatile long rateLimitReset = -1;
 
     public GitHubApiClient(HttpClient client, String repo, String owner, String token) {
+        this(client, repo, owner, token, ResiliencePolicy.none());
+    }
+
+    public GitHubApiClient(HttpClient client, String repo, String owner, String token, ResiliencePolicy policy) {
+        this(client, repo, owner, token, policy, DEFAULT_API_URL);
+    }
+
+    /**
+     * @param apiUrl The root URL of the REST API, e.g. the {@code /api/v3} URL of a GitHub Enterprise Server or a
+     *               local simulator; {@link #DEFAULT_API_URL} for github.com.
+     */
+    public GitHubApiClient(HttpClient client, String repo, String owner, String token, ResiliencePolicy policy, String apiUrl) {
         this.repo = repo;
         this.owner = owner;
         this.token = token;
         this.client = client;
+        this.apiUrl = apiUrl.endsWith("/") ? apiUrl.substring(0, apiUrl.length() - 1) : apiUrl;
+        this.sender = new ResilientHttpSender(client, policy);
+    }
+
+    /**
+     * @return The number of requests left in the current rate limit window, as reported by the most recent
+     *         GitHub response, or {@code -1} if no response carried rate limit information yet.
+     */
+    public int getRateLimitRemaining() {
+        return rateLimitRemaining;
+    }
+
+    /**
+     * @return The time (in epoch seconds) at which the current rate limit window resets, or {@code -1} if unknown.
+     */
+    public long getRateLimitReset() {
+        return rateLimitReset;
+    }
+
+    /**
+     * Starts the request budget of an operation that makes several client calls, such as a whole branch comparison.
+     * Passing the returned deadline to the overloads taking one bounds the operation as a whole by
+     * {@link ResiliencePolicy#budget()}; the overloads without one start a new budget for every call.
+     *
+     * @return The deadline (in {@link System#nanoTime()} units) of an operation starting now,
+     *         or {@link Long#MAX_VALUE} if the policy has no budget.
+     */
+    public long newDeadline() {
+        return sender.newDeadline();
+    }
+
+    private void recordRateLimit(HttpResponse<?> response) {
+        HttpHeaders headers = response.headers();
+        if (headers == null) return;
+
+        try {
+            headers.firstValue("X-RateLimit-Remaining").ifPresent(value -> rateLimitRemaining = Integer.parseInt(value.trim()));
+            headers.firstValue("X-RateLimit-Reset").ifPresent(value -> rateLimitReset = Long.parseLong(value.trim()));
+        } catch (NumberFormatException ignored) {
+            // Malformed rate limit headers only disable quota tracking, they never fail a request.
+        }
+    }
+
+    /**
+     * Starts recording the branch histories, commit parents and compare results this client fetches, so that they
+     * can be written with {@link #exportSnapshot(Path)}. Without it only the most recently used compare results are
+     * kept, which bounds the memory of long-running clients.
+     */
+    public void recordSnapshot() {
+        recording = true;
+    }
+
+    /**
+     * Seeds the client with a previously exported snapshot. Afterwards, the history of a branch contained in the
+     * snapshot is fetched only up to the snapshot's head of that branch, and compare results contained in the
+     * snapshot are answered without a request. Recording is started as by {@link #recordSnapshot()}, so that the
+     * snapshot can be re-exported with what was fetched since.
+     *
+     * @param snapshot The snapshot to start from.
+     *
+     * @see #exportSnapshot(Path)
+     */
+    public void warmStart(HistorySnapshot snapshot) {
+        this.snapshot = snapshot;
+        recording = true;
+    }
+
+    /**
+     * Writes the branch histories and compare results known to this client (including those of the snapshot it was
+     * warm started with) to a snapshot file that other processes can load with {@link HistorySnapshot#load(Path)}.
+     * Only entries identified by full commit SHAs are exported.
+     *
+     * @param path The file to write.
+     * @throws IOException If the file could not be written.
+     * @throws IllegalStateException If neither {@link #recordSnapshot()} nor {@link #warmStart(HistorySnapshot)}
+     *                               was called, so nothing was recorded.
+     */
+    public void exportSnapshot(Path path) throws IOException {
+        if (!recording) {
+            throw new IllegalStateException("Call recordSnapshot() before fetching what the snapshot should contain");
+        }
+
+        HistorySnapshot current = snapshot;
+        Map<String, List<String>> exportedHistories = new LinkedHashMap<>();
+        Map<String, List<String>> exportedParents = new HashMap<>();
+        Map<String, List<String>> exportedCompares = new HashMap<>();
+
+        if (current != null) {
+            for (String branch : current.branches()) {
+                current.getHistory(branch).ifPresent(history -> exportedHistories.put(branch, history));
+            }
+            exportedCompares.putAll(current.compares());
+        }
+        recordedHistories.forEach((branch, history) -> {
+            if (history.stream().allMatch(HistorySnapshot::isSha)) exportedHistories.put(branch, history);
+        });
+        exportedCompares.putAll(recordedCompares);
+
+        for (List<String> history : exportedHistories.values()) {
+            for (String sha : history) {
+                List<String> commitParents = recordedParents.get(sha);
+                if (commitParents == null && current != null) commitParents = current.getParents(sha);
+                if (commitParents != null && !commitParents.isEmpty()) exportedParents.put(sha, commitParents);
+            }
+        }
+
+        HistorySnapshot.write(path, exportedHistories, exportedParents, exportedCompares);
+    }
+
+    private void recordParents(List<Commit> commits) {
+        if (!recording) return;
+
+        for (Commit commit : commits) {
+            if (commit.getParents() == null || !HistorySnapshot.isSha(commit.getSha())) continue;
+
+            List<String> shas = commit.getParents().stream().map(Commit::getSha).filter(HistorySnapshot::isSha).toList();
+            recordedParents.put(commit.getSha(), shas);
+        }
+    }
+
+    private List<String> shared(String key, Callable<List<String>> loader) throws GitHubApiException {
+        try {
+            return flights.execute(key, loader);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof GitHubApiException cause) throw cause;
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new GitHubApiException(String.format("GitHub request failed: %s", e.getCause()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GitHubApiException(String.format("GitHub request interrupted: %s", e));
+        }
+    }
+
+    private static int indexOf(List<Commit> commits, String sha) {
+        for (int i = commits.size() - 1; i >= 0; i--) {
+            if (sha.equals(commits.get(i).getSha())) return i;
+        }
+        return -1;
     }
 
     private Optional<String> extractNextPageURL(String linkHeader) {
@@ -55,10 +244,125 @@ public class GitHubApiClient {
      * @see HttpResponse
      */
     public List<String> getCommitHistory(String branch) throws GitHubApiException {
+        return getCommitHistory(branch, newDeadline());
+    }
+
+    /**
+     * Like {@link #getCommitHistory(String)}, within the budget of the calling operation.
+     *
+     * @param branch The name of the branch for which commit history is to be fetched.
+     * @param deadline The deadline of the calling operation, as returned by {@link #newDeadline()}.
+     * @return List of commit SHA hashes as strings in reverse chronological order (most recent first).
+     * @throws GitHubApiException If an error occurs during the GitHub API request or response processing,
+     *                            including network issues, HTTP error responses, or parsing errors.
+     */
+    public List<String> getCommitHistory(String branch, long deadline) throws GitHubApiException {
+        return getCommitHistory(branch, (String) null, deadline);
+    }
+
+    /**
+     * Retrieves the commit history for the specified branch, stopping at the first page that contains
+     * an already known commit. This allows callers that cached an earlier history to fetch only the delta.
+     * Concurrent calls with the same arguments share a single pagination run.
+     *
+     * @param branch The name of the branch (or the SHA of a commit) for which commit history is to be fetched.
+     * @param knownCommit The SHA of a previously seen commit, or {@code null} to fetch the whole history.
+     * @return List of commit SHA hashes in reverse chronological order (most recent first). If {@code knownCommit}
+     *         was encountered, the list ends with it and contains only the commits newer than it; otherwise the
+     *         full history is returned.
+     * @throws GitHubApiException If an error occurs during the GitHub API request or response processing,
+     *                            including network issues, HTTP error responses, or parsing errors.
+     */
+    public List<String> getCommitHistory(String branch, String knownCommit) throws GitHubApiException {
+        return getCommitHistory(branch, knownCommit, newDeadline());
+    }
+
+    /**
+     * Like {@link #getCommitHistory(String, String)}, within the budget of the calling operation.
+     *
+     * @param branch The name of the branch (or the SHA of a commit) for which commit history is to be fetched.
+     * @param knownCommit The SHA of a previously seen commit, or {@code null} to fetch the whole history.
+     * @param deadline The deadline of the calling operation, as returned by {@link #newDeadline()}.
+     * @return List of commit SHA hashes in reverse chronological order (most recent first), ending with
+     *         {@code knownCommit} if it was encountered.
+     * @throws GitHubApiException If an error occurs during the GitHub API request or response processing,
+     *                            including network issues, HTTP error responses, or parsing errors.
+     */
+    public List<String> getCommitHistory(String branch, String knownCommit, long deadline) throws GitHubApiException {
+        return shared("history:" + branch + ".." + knownCommit, () -> knownCommit == null
+                ? fetchWarmCommitHistory(branch, deadline)
+                : fetchCommitHistory(branch, knownCommit, null, deadline));
+    }
+
+    /**
+     * Retrieves the commits of the specified branch that changed the path of a single-include filter, using the
+     * {@code path} parameter of the commits endpoint so that no other commit is paged through.
+     *
+     * @param branch The name of the branch (or the SHA of a commit) for which commit history is to be fetched.
+     * @param filter The paths of interest; must match every path or consist of a single include.
+     * @return List of commit SHA hashes in reverse chronological order (most recent first); empty if no commit of
+     *         the branch changed the path.
+     * @throws GitHubApiException If an error occurs during the GitHub API request or response processing,
+     *                            including network issues, HTTP error responses, or parsing errors.
+     * @throws IllegalArgumentException If the filter cannot be expressed with a single {@code path} parameter.
+     *
+     * @see PathFilter#singleInclude()
+     */
+    public List<String> getCommitHistory(String branch, PathFilter filter) throws GitHubApiException {
+        return getCommitHistory(branch, filter, newDeadline());
+    }
+
+    /**
+     * Like {@link #getCommitHistory(String, PathFilter)}, within the budget of the calling operation.
+     *
+     * @param branch The name of the branch (or the SHA of a commit) for which commit history is to be fetched.
+     * @param filter The paths of interest; must match every path or consist of a single include.
+     * @param deadline The deadline of the calling operation, as returned by {@link #newDeadline()}.
+     * @return List of commit SHA hashes in reverse chronological order (most recent first); empty if no commit of
+     *         the branch changed the path.
+     * @throws GitHubApiException If an error occurs during the GitHub API request or response processing,
+     *                            including network issues, HTTP error responses, or parsing errors.
+     * @throws IllegalArgumentException If the filter cannot be expressed with a single {@code path} parameter.
+     */
+    public List<String> getCommitHistory(String branch, PathFilter filter, long deadline) throws GitHubApiException {
+        if (filter.isAll()) return getCommitHistory(branch, deadline);
+
+        String path = filter.singleInclude()
+                .orElseThrow(() -> new IllegalArgumentException("GitHub filters commits by a single path only: " + filter));
+        return shared("history:" + branch + "?path=" + path, () -> fetchCommitHistory(branch, null, path, deadline));
+    }
+
+    private List<String> fetchWarmCommitHistory(String branch, long deadline) throws GitHubApiException {
+        HistorySnapshot current = snapshot;
+        Optional<List<String>> cached = current == null ? Optional.empty() : current.getHistory(branch);
+
+        List<String> history;
+        if (cached.isEmpty() || cached.get().isEmpty()) {
+            history = fetchCommitHistory(branch, null, null, deadline);
+        } else {
+            String snapshotHead = cached.get().getFirst();
+            List<String> delta = fetchCommitHistory(branch, snapshotHead, null, deadline);
+
+            if (delta.isEmpty() || !delta.getLast().equals(snapshotHead)) {
+                history = delta;
+            } else {
+                List<String> combined = new ArrayList<>(delta.subList(0, delta.size() - 1));
+                combined.addAll(cached.get());
+                history = List.copyOf(combined);
+            }
+        }
+
+        // Histories are recorded under branch names only: a SHA names a different, never reused entry for every move.
+        if (recording && !HistorySnapshot.isSha(branch)) recordedHistories.put(branch, history);
+        return history;
+    }
+
+    private List<String> fetchCommitHistory(String branch, String knownCommit, String path, long deadline) throws GitHubApiException {
         try {
             List<Commit> commits = new ArrayList<>();
 
-            String pageUrl = String.format("https://api.github.com/repos/%s/%s/commits?sha=%s&page=1", owner, repo, branch);
+            String pageUrl = String.format("%s/repos/%s/%s/commits?sha=%s&page=1", apiUrl, owner, repo, branch);
+            if (path != null) pageUrl += "&path=" + URLEncoder.encode(path, StandardCharsets.UTF_8);
             String linkHeader;
 
             while (pageUrl != null) {
@@ -70,7 +374,9 @@ public class GitHubApiClient {
                         .GET()
                         .build();
 
-                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                HttpResponse<String> response = sender.send(request, HttpResponse.BodyHandlers.ofString(), deadline);
+
+                recordRateLimit(response);
 
                 if (response.statusCode() != 200) {
                     throw new GitHubApiException(String.format("GitHub get commit history failed: %s", response.statusCode()));
@@ -80,8 +386,17 @@ public class GitHubApiClient {
                 pageUrl = extractNextPageURL(linkHeader).orElse(null);
 
                 commits.addAll(MAPPER.readValue(response.body(), new TypeReference<>() {}));
+
+                if (knownCommit != null) {
+                    int knownIndex = indexOf(commits, knownCommit);
+                    if (knownIndex >= 0) {
+                        recordParents(commits);
+                        return commits.subList(0, knownIndex + 1).stream().map(Commit::getSha).toList();
+                    }
+                }
             }
 
+            recordParents(commits);
             return commits.stream().map(Commit::getSha).toList();
         } catch (JsonProcessingException e) {
             throw new GitHubApiException(String.format("Error parsing the response body: %s", e));
@@ -92,6 +407,7 @@ public class GitHubApiClient {
 
     /**
      * Retrieves the list of modified file names between two commits in the specified GitHub repository.
+     * Concurrent calls for the same pair of commits share a single request.
      *
      * @param commit1 The SHA of the first commit in the comparison.
      * @param commit2 The SHA of the second commit in the comparison.
@@ -103,10 +419,82 @@ public class GitHubApiClient {
      * @see HttpResponse
      */
     public List<String> getModifiedFilesNames(String commit1, String commit2) throws GitHubApiException {
-        try {
-            List<ChangedFile> changedFiles;
+        return getModifiedFilesNames(commit1, commit2, newDeadline());
+    }
+
+    /**
+     * Like {@link #getModifiedFilesNames(String, String)}, within the budget of the calling operation.
+     *
+     * @param commit1 The SHA of the first commit in the comparison.
+     * @param commit2 The SHA of the second commit in the comparison.
+     * @param deadline The deadline of the calling operation, as returned by {@link #newDeadline()}.
+     * @return List of modified file names between the two commits.
+     * @throws GitHubApiException If an error occurs during the GitHub API request or response processing,
+     *                            including network issues, HTTP error responses, or parsing errors.
+     */
+    public List<String> getModifiedFilesNames(String commit1, String commit2, long deadline) throws GitHubApiException {
+        String key = HistorySnapshot.compareKey(commit1, commit2);
+        boolean immutable = HistorySnapshot.isSha(commit1) && HistorySnapshot.isSha(commit2);
+        if (immutable) {
+            List<String> known = knownCompare(key);
+            if (known != null) return known;
 
-            String url = String.format("https://api.github.com/repos/%s/%s/compare/%s...%s", owner, repo, commit1, commit2);
+            HistorySnapshot current = snapshot;
+            Optional<List<String>> cached = current == null ? Optional.empty() : current.getModifiedFiles(commit1, commit2);
+            if (cached.isPresent()) return cached.get();
+        }
+
+        List<String> files = shared("compare:" + key, () -> fetchModifiedFilesNames(commit1, commit2, deadline));
+        if (immutable) {
+            compares.put(key, files);
+            if (recording) recordedCompares.put(key, files);
+        }
+        return files;
+    }
+
+    private List<String> knownCompare(String key) {
+        List<String> known = compares.get(key);
+        return known == null ? recordedCompares.get(key) : known;
+    }
+
+    private List<String> fetchModifiedFilesNames(String commit1, String commit2, long deadline) throws GitHubApiException {
+        return parseCompareFiles(fetchCompare(commit1, commit2, deadline));
+    }
+
+    /**
+     * Retrieves the commits reachable from the second commit but not from the first one, as listed by the compare
+     * endpoint. Unlike a slice of the date-ordered branch history, this also holds commits of merged side branches
+     * that are older than the first commit. The files listed by the same response are kept, so a following
+     * {@link #getModifiedFilesNames(String, String, long)} for the same pair of SHAs needs no request.
+     *
+     * @param commit1 The SHA of the first commit in the comparison.
+     * @param commit2 The SHA of the second commit in the comparison.
+     * @param deadline The deadline of the calling operation, as returned by {@link #newDeadline()}.
+     * @return The SHAs of the compared commits, or an empty Optional if GitHub truncated the list
+     *         (it lists at most 250 commits per compare).
+     * @throws GitHubApiException If an error occurs during the GitHub API request or response processing,
+     *                            including network issues, HTTP error responses, or parsing errors.
+     */
+    public Optional<List<String>> getComparedCommits(String commit1, String commit2, long deadline) throws GitHubApiException {
+        JsonNode rootNode = fetchCompare(commit1, commit2, deadline);
+        if (HistorySnapshot.isSha(commit1) && HistorySnapshot.isSha(commit2)) {
+            String key = HistorySnapshot.compareKey(commit1, commit2);
+            List<String> files = parseCompareFiles(rootNode);
+            compares.put(key, files);
+            if (recording) recordedCompares.put(key, files);
+        }
+
+        List<String> commits = new ArrayList<>();
+        for (JsonNode commitNode : rootNode.path("commits")) {
+            commits.add(commitNode.path("sha").asText());
+        }
+        if (rootNode.path("total_commits").asInt(commits.size()) > commits.size()) return Optional.empty();
+        return Optional.of(commits);
+    }
+
+    private JsonNode fetchCompare(String commit1, String commit2, long deadline) throws GitHubApiException {
+        try {
+            String url = String.format("%s/repos/%s/%s/compare/%s...%s", apiUrl, owner, repo, commit1, commit2);
 
             HttpRequest request = HttpRequest.newBuilder()
                     .timeout(Duration.ofSeconds(10))
@@ -116,22 +504,355 @@ public class GitHubApiClient {
                     .GET()
                     .build();
 
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = sender.send(request, HttpResponse.BodyHandlers.ofString(), deadline);
+
+            recordRateLimit(response);
 
             if (response.statusCode() != 200) {
                 throw new GitHubApiException(String.format("GitHub get commit history failed: %s", response.statusCode()));
             }
 
-            JsonNode rootNode = MAPPER.readTree(response.body());
-            JsonNode filesNode = rootNode.path("files");
+            return MAPPER.readTree(response.body());
+        } catch (JsonProcessingException e) {
+            throw new GitHubApiException(String.format("Error parsing the response body: %s", e));
+        } catch (IOException | InterruptedException e) {
+            throw new GitHubApiException(String.format("GitHub compare commits failed: %s", e));
+        }
+    }
 
-            changedFiles = MAPPER.readValue(filesNode.traverse(), new TypeReference<>() {});
+    private static List<String> parseCompareFiles(JsonNode rootNode) throws GitHubApiException {
+        try {
+            List<ChangedFile> changedFiles = MAPPER.readValue(rootNode.path("files").traverse(), new TypeReference<>() {});
+            return changedFiles.stream().map(ChangedFile::getFilename).toList();
+        } catch (IOException e) {
+            throw new GitHubApiException(String.format("Error parsing the response body: %s", e));
+        }
+    }
+
+    /**
+     * Retrieves the list of files changed by a single commit, compared with its first parent.
+     *
+     * @param sha The SHA of the commit.
+     * @return List of file names changed by the commit. GitHub lists at most 300 files per commit.
+     * @throws GitHubApiException If an error occurs during the GitHub API request or response processing,
+     *                            including network issues, HTTP error responses, or parsing errors.
+     */
+    public List<String> getCommitFiles(String sha) throws GitHubApiException {
+        return getCommitFiles(sha, newDeadline());
+    }
+
+    /**
+     * Like {@link #getCommitFiles(String)}, within the budget of the calling operation.
+     *
+     * @param sha The SHA of the commit.
+     * @param deadline The deadline of the calling operation, as returned by {@link #newDeadline()}.
+     * @return List of file names changed by the commit.
+     * @throws GitHubApiException If an error occurs during the GitHub API request or response processing,
+     *                            including network issues, HTTP error responses, or parsing errors.
+     */
+    public List<String> getCommitFiles(String sha, long deadline) throws GitHubApiException {
+        return shared("commit:" + sha, () -> fetchCommitFiles(sha, deadline));
+    }
+
+    private List<String> fetchCommitFiles(String sha, long deadline) throws GitHubApiException {
+        try {
+            String url = String.format("%s/repos/%s/%s/commits/%s", apiUrl, owner, repo, sha);
+
+            HttpRequest request = HttpRequest.newBuilder()
+                    .timeout(Duration.ofSeconds(10))
+                    .uri(URI.create(url))
+                    .header("Authorization", "token " + token)
+                    .header("Accept", "application/vnd.github.v3+json")
+                    .GET()
+                    .build();
+
+            HttpResponse<String> response = sender.send(request, HttpResponse.BodyHandlers.ofString(), deadline);
+
+            recordRateLimit(response);
+
+            if (response.statusCode() != 200) {
+                throw new GitHubApiException(String.format("GitHub get commit failed: %s", response.statusCode()));
+            }
+
+            JsonNode filesNode = MAPPER.readTree(response.body()).path("files");
+            List<ChangedFile> changedFiles = MAPPER.readValue(filesNode.traverse(), new TypeReference<>() {});
 
             return changedFiles.stream().map(ChangedFile::getFilename).toList();
         } catch (JsonProcessingException e) {
             throw new GitHubApiException(String.format("Error parsing the response body: %s", e));
+        } catch (IOException | InterruptedException e) {
+            throw new GitHubApiException(String.format("GitHub get commit failed: %s", e));
+        }
+    }
+
+    /**
+     * Retrieves the list of modified file names between two commits that match the filter. The compare response is
+     * parsed as a stream and only the names of matching files are kept; the commit list, patches and every other
+     * field are skipped without being materialised. A compare that is already cached is filtered instead.
+     *
+     * @param commit1 The SHA of the first commit in the comparison.
+     * @param commit2 The SHA of the second commit in the comparison.
+     * @param filter The paths of interest.
+     * @return List of modified file names matching the filter.
+     * @throws GitHubApiException If an error occurs during the GitHub API request or response processing,
+     *                            including network issues, HTTP error responses, or parsing errors.
+     */
+    public List<String> getModifiedFilesNames(String commit1, String commit2, PathFilter filter) throws GitHubApiException {
+        return getModifiedFilesNames(commit1, commit2, filter, newDeadline());
+    }
+
+    /**
+     * Like {@link #getModifiedFilesNames(String, String, PathFilter)}, within the budget of the calling operation.
+     *
+     * @param commit1 The SHA of the first commit in the comparison.
+     * @param commit2 The SHA of the second commit in the comparison.
+     * @param filter The paths of interest.
+     * @param deadline The deadline of the calling operation, as returned by {@link #newDeadline()}.
+     * @return List of modified file names matching the filter.
+     * @throws GitHubApiException If an error occurs during the GitHub API request or response processing,
+     *                            including network issues, HTTP error responses, or parsing errors.
+     */
+    public List<String> getModifiedFilesNames(String commit1, String commit2, PathFilter filter, long deadline) throws GitHubApiException {
+        if (filter.isAll()) return getModifiedFilesNames(commit1, commit2, deadline);
+
+        String key = HistorySnapshot.compareKey(commit1, commit2);
+        if (HistorySnapshot.isSha(commit1) && HistorySnapshot.isSha(commit2)) {
+            List<String> known = knownCompare(key);
+            HistorySnapshot current = snapshot;
+            if (known == null && current != null) known = current.getModifiedFiles(commit1, commit2).orElse(null);
+            if (known != null) return known.stream().filter(filter::matches).toList();
+        }
+
+        return shared("compare:" + key + ":" + filter, () -> fetchModifiedFilesNames(commit1, commit2, filter, deadline));
+    }
+
+    private List<String> fetchModifiedFilesNames(String commit1, String commit2, PathFilter filter, long deadline) throws GitHubApiException {
+        try {
+            String url = String.format("%s/repos/%s/%s/compare/%s...%s", apiUrl, owner, repo, commit1, commit2);
+
+            HttpRequest request = HttpRequest.newBuilder()
+                    .timeout(Duration.ofSeconds(10))
+                    .uri(URI.create(url))
+                    .header("Authorization", "token " + token)
+                    .header("Accept", "application/vnd.github.v3+json")
+                    .GET()
+                    .build();
+
+            HttpResponse<InputStream> response = sender.send(request, HttpResponse.BodyHandlers.ofInputStream(), deadline);
+
+            recordRateLimit(response);
+
+            try (InputStream body = response.body()) {
+                if (response.statusCode() != 200) {
+                    throw new GitHubApiException(String.format("GitHub compare commits failed: %s", response.statusCode()));
+                }
+                return parseModifiedFilesNames(body, filter);
+            }
+        } catch (JsonProcessingException e) {
+            throw new GitHubApiException(String.format("Error parsing the response body: %s", e));
         } catch (IOException | InterruptedException e) {
             throw new GitHubApiException(String.format("GitHub compare commits failed: %s", e));
         }
     }
+
+    private static List<String> parseModifiedFilesNames(InputStream body, PathFilter filter) throws IOException {
+        List<String> files = new ArrayList<>();
+
+        try (JsonParser parser = MAPPER.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected compare response object");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                if (!field.equals("files") || value != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String fileField = parser.currentName();
+                        parser.nextToken();
+
+                        if (fileField.equals("filename")) {
+                            String filename = parser.getText();
+                            if (filter.matches(filename)) files.add(filename);
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                }
+            }
+        }
+
+        return files;
+    }
+
+    /**
+     * Retrieves the ranges of lines changed between two commits, limited to the given paths. The compare response is
+     * parsed as a stream: files outside {@code paths} are skipped without ever materialising their {@code patch}
+     * field, and only the hunk headers of the matching patches are kept.
+     *
+     * @param commit1 The SHA of the first commit in the comparison.
+     * @param commit2 The SHA of the second commit in the comparison.
+     * @param paths The file paths to inspect.
+     * @return Map from each path that is both changed and contained in {@code paths} to the ranges of {@code commit1}
+     *         lines it changes, in ascending order. Files without a patch (binary or too large) are mapped to an empty list.
+     * @throws GitHubApiException If an error occurs during the GitHub API request or response processing,
+     *                            including network issues, HTTP error responses, or parsing errors.
+     */
+    public Map<String, List<LineRange>> getChangedLineRanges(String commit1, String commit2, Set<String> paths) throws GitHubApiException {
+        return getChangedLineRanges(commit1, commit2, paths, newDeadline());
+    }
+
+    /**
+     * Like {@link #getChangedLineRanges(String, String, Set)}, within the budget of the calling operation.
+     *
+     * @param commit1 The SHA of the first commit in the comparison.
+     * @param commit2 The SHA of the second commit in the comparison.
+     * @param paths The file paths to inspect.
+     * @param deadline The deadline of the calling operation, as returned by {@link #newDeadline()}.
+     * @return Map from each path that is both changed and contained in {@code paths} to the ranges of {@code commit1}
+     *         lines it changes, in ascending order.
+     * @throws GitHubApiException If an error occurs during the GitHub API request or response processing,
+     *                            including network issues, HTTP error responses, or parsing errors.
+     */
+    public Map<String, List<LineRange>> getChangedLineRanges(String commit1, String commit2, Set<String> paths, long deadline) throws GitHubApiException {
+        try {
+            String url = String.format("%s/repos/%s/%s/compare/%s...%s", apiUrl, owner, repo, commit1, commit2);
+
+            HttpRequest request = HttpRequest.newBuilder()
+                    .timeout(Duration.ofSeconds(10))
+                    .uri(URI.create(url))
+                    .header("Authorization", "token " + token)
+                    .header("Accept", "application/vnd.github.v3+json")
+                    .GET()
+                    .build();
+
+            HttpResponse<InputStream> response = sender.send(request, HttpResponse.BodyHandlers.ofInputStream(), deadline);
+
+            recordRateLimit(response);
+
+            try (InputStream body = response.body()) {
+                if (response.statusCode() != 200) {
+                    throw new GitHubApiException(String.format("GitHub compare commits failed: %s", response.statusCode()));
+                }
+                return parseChangedLineRanges(body, paths);
+            }
+        } catch (JsonProcessingException e) {
+            throw new GitHubApiException(String.format("Error parsing the response body: %s", e));
+        } catch (IOException | InterruptedException e) {
+            throw new GitHubApiException(String.format("GitHub compare commits failed: %s", e));
+        }
+    }
+
+    private static Map<String, List<LineRange>> parseChangedLineRanges(InputStream body, Set<String> paths) throws IOException {
+        Map<String, List<LineRange>> ranges = new LinkedHashMap<>();
+
+        try (JsonParser parser = MAPPER.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected compare response object");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                if (!field.equals("files") || value != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    String filename = null;
+                    List<LineRange> patchRanges = null;
+
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String fileField = parser.currentName();
+                        JsonToken fileValue = parser.nextToken();
+
+                        if (fileField.equals("filename")) {
+                            filename = parser.getText();
+                        } else if (fileField.equals("patch") && fileValue == JsonToken.VALUE_STRING
+                                && (filename == null || paths.contains(filename))) {
+                            // Read the hunk headers straight from the parser's buffer instead of copying the patch.
+                            patchRanges = HunkParser.parse(new CharArrayReader(
+                                    parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength()));
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+
+                    if (filename != null && paths.contains(filename)) {
+                        ranges.put(filename, patchRanges == null ? new ArrayList<>() : patchRanges);
+                    }
+                }
+            }
+        }
+
+        return ranges;
+    }
+
+    /**
+     * Retrieves the SHA of the commit the specified branch currently points to. The request is conditional:
+     * the ETag of the previous response is sent back, so an unchanged branch is answered with {@code 304 Not Modified},
+     * which GitHub does not count against the rate limit.
+     *
+     * @param branch The name of the branch to resolve.
+     * @return The SHA of the most recent commit on the branch.
+     * @throws GitHubApiException If an error occurs during the GitHub API request or response processing,
+     *                            including network issues or HTTP error responses.
+     */
+    public String getHeadCommit(String branch) throws GitHubApiException {
+        return getHeadCommit(branch, newDeadline());
+    }
+
+    /**
+     * Like {@link #getHeadCommit(String)}, within the budget of the calling operation.
+     *
+     * @param branch The name of the branch to resolve.
+     * @param deadline The deadline of the calling operation, as returned by {@link #newDeadline()}.
+     * @return The SHA of the most recent commit on the branch.
+     * @throws GitHubApiException If an error occurs during the GitHub API request or response processing,
+     *                            including network issues or HTTP error responses.
+     */
+    public String getHeadCommit(String branch, long deadline) throws GitHubApiException {
+        try {
+            String url = String.format("%s/repos/%s/%s/commits/%s", apiUrl, owner, repo, branch);
+            CachedHead cached = heads.get(branch);
+
+            HttpRequest.Builder builder = HttpRequest.newBuilder()
+                    .timeout(Duration.ofSeconds(10))
+                    .uri(URI.create(url))
+                    .header("Authorization", "token " + token)
+                    .header("Accept", "application/vnd.github.sha")
+                    .GET();
+            if (cached != null) {
+                builder.header("If-None-Match", cached.etag());
+            }
+
+            HttpResponse<String> response = sender.send(builder.build(), HttpResponse.BodyHandlers.ofString(), deadline);
+
+            recordRateLimit(response);
+
+            if (response.statusCode() == 304 && cached != null) {
+                return cached.sha();
+            }
+            if (response.statusCode() != 200) {
+                throw new GitHubApiException(String.format("GitHub get head commit failed: %s", response.statusCode()));
+            }
+
+            String sha = response.body().trim();
+            response.headers().firstValue("ETag").ifPresent(etag -> heads.put(branch, new CachedHead(etag, sha)));
+
+            return sha;
+        } catch (IOException | InterruptedException e) {
+            throw new GitHubApiException(String.format("GitHub get head commit failed: %s", e));
+        }
+    }
+
+    private record CachedHead(String etag, String sha) {}
 }
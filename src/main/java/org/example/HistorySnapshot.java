@@ -0,0 +1,299 @@
+package org.example;
+
+import java.io.DataOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Compact binary snapshot of remote commit histories and compare results, meant to be published by one CI job and
+ * loaded by others so that a fresh JVM only fetches the commits added since the snapshot was taken.
+ * <p>
+ * Commits are stored once, as raw 20-byte SHAs sorted in ascending order, each with links to its parents. Branch
+ * histories are arrays of indices into that table, compare results are keyed by the raw SHAs of both commits.
+ * A loaded snapshot is memory mapped. Loading only notes where each branch history and compare result starts; the
+ * commit table is binary searched in place, and histories, parents and compared files are decoded when requested.
+ *
+ * <pre>
+ * int magic, int version
+ * int commitCount, commitCount * 20 bytes   (sorted SHAs)
+ * (commitCount + 1) * int                   (offsets into the parent table)
+ * int parentCount, parentCount * int        (parent commit indices)
+ * int branchCount, branchCount * (name, int length, length * int commit index)
+ * int compareCount, compareCount * (20 bytes base, 20 bytes head, int fileCount, fileCount * path)
+ * </pre>
+ * Strings are stored as an int byte length followed by their UTF-8 bytes.
+ */
+public class HistorySnapshot {
+    private static final int MAGIC = 0x47424353;
+    private static final int VERSION = 2;
+    private static final int SHA_BYTES = 20;
+
+    private final ByteBuffer buffer;
+    private final int commitCount;
+    private final int shaTableOffset;
+    private final int parentOffsetsOffset;
+    private final int parentTableOffset;
+    private final Map<String, Integer> historyOffsets;
+    private final Map<String, Integer> compareOffsets;
+
+    private HistorySnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a history snapshot or unsupported version");
+        }
+
+        commitCount = buffer.getInt(8);
+        shaTableOffset = 12;
+        parentOffsetsOffset = shaTableOffset + commitCount * SHA_BYTES;
+        int parentCountOffset = parentOffsetsOffset + (commitCount + 1) * Integer.BYTES;
+        parentTableOffset = parentCountOffset + Integer.BYTES;
+
+        ByteBuffer reader = buffer.duplicate();
+        reader.position(parentTableOffset + buffer.getInt(parentCountOffset) * Integer.BYTES);
+
+        int branchCount = reader.getInt();
+        Map<String, Integer> branches = new HashMap<>();
+        for (int i = 0; i < branchCount; i++) {
+            String name = readString(reader);
+            branches.put(name, reader.position());
+            int length = reader.getInt();
+            reader.position(reader.position() + length * Integer.BYTES);
+        }
+        historyOffsets = branches;
+
+        int compareCount = reader.getInt();
+        Map<String, Integer> results = new HashMap<>();
+        for (int i = 0; i < compareCount; i++) {
+            String base = readSha(reader);
+            String head = readSha(reader);
+            results.put(compareKey(base, head), reader.position());
+            int fileCount = reader.getInt();
+            for (int j = 0; j < fileCount; j++) skipString(reader);
+        }
+        compareOffsets = results;
+    }
+
+    /**
+     * Memory maps a snapshot file.
+     *
+     * @param path The snapshot file written by {@link #write(Path, Map, Map, Map)}.
+     * @return The loaded snapshot.
+     * @throws IOException If the file could not be mapped or is not a valid snapshot.
+     */
+    public static HistorySnapshot load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            try {
+                return new HistorySnapshot(buffer);
+            } catch (RuntimeException e) {
+                throw new IOException("Corrupt history snapshot: " + path, e);
+            }
+        }
+    }
+
+    /**
+     * Writes a snapshot file.
+     *
+     * @param path The file to write.
+     * @param histories Branch name to commit SHAs in reverse chronological order (most recent first).
+     * @param parents Commit SHA to the SHAs of its parents; commits without an entry are stored without parents.
+     *                Parents are followed transitively, so every commit reachable through these links is stored.
+     * @param compares Compare key (see {@link #compareKey(String, String)}) to the modified file paths.
+     * @throws IOException If the file could not be written.
+     */
+    public static void write(Path path, Map<String, List<String>> histories,
+                             Map<String, List<String>> parents, Map<String, List<String>> compares) throws IOException {
+        TreeMap<String, Integer> index = new TreeMap<>();
+        Deque<String> pending = new ArrayDeque<>();
+        histories.values().forEach(pending::addAll);
+        while (!pending.isEmpty()) {
+            String sha = pending.pop();
+            if (index.put(sha, 0) == null) pending.addAll(parents.getOrDefault(sha, List.of()));
+        }
+        int next = 0;
+        for (Map.Entry<String, Integer> entry : index.entrySet()) entry.setValue(next++);
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            out.writeInt(index.size());
+            for (String sha : index.keySet()) out.write(HexFormat.of().parseHex(sha));
+
+            int offset = 0;
+            for (String sha : index.keySet()) {
+                out.writeInt(offset);
+                offset += parents.getOrDefault(sha, List.of()).size();
+            }
+            out.writeInt(offset);
+
+            out.writeInt(offset);
+            for (String sha : index.keySet()) {
+                for (String parent : parents.getOrDefault(sha, List.of())) out.writeInt(index.get(parent));
+            }
+
+            out.writeInt(histories.size());
+            for (Map.Entry<String, List<String>> history : histories.entrySet()) {
+                writeString(out, history.getKey());
+                out.writeInt(history.getValue().size());
+                for (String sha : history.getValue()) out.writeInt(index.get(sha));
+            }
+
+            out.writeInt(compares.size());
+            for (Map.Entry<String, List<String>> compare : compares.entrySet()) {
+                String[] commits = compare.getKey().split("\\.\\.\\.");
+                out.write(HexFormat.of().parseHex(commits[0]));
+                out.write(HexFormat.of().parseHex(commits[1]));
+                out.writeInt(compare.getValue().size());
+                for (String file : compare.getValue()) writeString(out, file);
+            }
+        }
+    }
+
+    /**
+     * @return The key under which the compare result of two commits is stored.
+     */
+    public static String compareKey(String base, String head) {
+        return base + "..." + head;
+    }
+
+    /**
+     * @return Whether the given string is a full 40 character hexadecimal SHA, i.e. can be stored in a snapshot.
+     */
+    public static boolean isSha(String value) {
+        if (value == null || value.length() != SHA_BYTES * 2) return false;
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.digit(value.charAt(i), 16) < 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return The names of the branches whose history is stored in the snapshot.
+     */
+    public Set<String> branches() {
+        return Collections.unmodifiableSet(historyOffsets.keySet());
+    }
+
+    /**
+     * @param branch The name of the branch.
+     * @return The stored history of the branch in reverse chronological order (most recent first), if present.
+     */
+    public Optional<List<String>> getHistory(String branch) {
+        Integer offset = historyOffsets.get(branch);
+        if (offset == null) return Optional.empty();
+
+        int length = buffer.getInt(offset);
+        List<String> shas = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) shas.add(shaAt(buffer.getInt(offset + (i + 1) * Integer.BYTES)));
+        return Optional.of(shas);
+    }
+
+    /**
+     * @param sha The SHA of a commit.
+     * @return The SHAs of the commit's parents, or an empty list if the commit is unknown or has no parents.
+     */
+    public List<String> getParents(String sha) {
+        int commit = indexOf(sha);
+        if (commit < 0) return List.of();
+
+        int from = buffer.getInt(parentOffsetsOffset + commit * Integer.BYTES);
+        int to = buffer.getInt(parentOffsetsOffset + (commit + 1) * Integer.BYTES);
+        List<String> parents = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            parents.add(shaAt(buffer.getInt(parentTableOffset + i * Integer.BYTES)));
+        }
+        return parents;
+    }
+
+    /**
+     * @return The stored compare result of two commits, if present.
+     */
+    public Optional<List<String>> getModifiedFiles(String base, String head) {
+        Integer offset = compareOffsets.get(compareKey(base, head));
+        return offset == null ? Optional.empty() : Optional.of(readFiles(offset));
+    }
+
+    /**
+     * @return All stored compare results, keyed by {@link #compareKey(String, String)}.
+     */
+    public Map<String, List<String>> compares() {
+        Map<String, List<String>> compares = new HashMap<>();
+        compareOffsets.forEach((key, offset) -> compares.put(key, readFiles(offset)));
+        return Collections.unmodifiableMap(compares);
+    }
+
+    private List<String> readFiles(int offset) {
+        ByteBuffer reader = buffer.duplicate();
+        reader.position(offset);
+        String[] files = new String[reader.getInt()];
+        for (int i = 0; i < files.length; i++) files[i] = readString(reader);
+        return List.of(files);
+    }
+
+    private int indexOf(String sha) {
+        if (!isSha(sha)) return -1;
+        byte[] key = HexFormat.of().parseHex(sha);
+
+        int low = 0;
+        int high = commitCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareShaAt(mid, key);
+            if (cmp < 0) low = mid + 1;
+            else if (cmp > 0) high = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    private int compareShaAt(int commit, byte[] key) {
+        int offset = shaTableOffset + commit * SHA_BYTES;
+        for (int i = 0; i < SHA_BYTES; i++) {
+            int cmp = Integer.compare(buffer.get(offset + i) & 0xff, key[i] & 0xff);
+            if (cmp != 0) return cmp;
+        }
+        return 0;
+    }
+
+    private String shaAt(int commit) {
+        byte[] sha = new byte[SHA_BYTES];
+        buffer.get(shaTableOffset + commit * SHA_BYTES, sha);
+        return HexFormat.of().formatHex(sha);
+    }
+
+    private static String readSha(ByteBuffer reader) {
+        byte[] sha = new byte[SHA_BYTES];
+        reader.get(sha);
+        return HexFormat.of().formatHex(sha);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer reader) {
+        int length = reader.getInt();
+        if (length < 0 || length > reader.remaining()) throw new BufferUnderflowException();
+        byte[] bytes = new byte[length];
+        reader.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void skipString(ByteBuffer reader) {
+        int length = reader.getInt();
+        reader.position(reader.position() + length);
+    }
+}
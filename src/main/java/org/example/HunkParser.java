@@ -0,0 +1,134 @@
+package org.example;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts changed line ranges from unified diff output one line at a time, so a diff never has to be held
+ * in memory as a whole.
+ */
+public class HunkParser {
+    private static final Pattern HUNK_PATTERN = Pattern.compile("^@@ -(\\d+)(?:,(\\d+))? \\+\\d+(?:,\\d+)? @@");
+    private static final String DIFF_HEADER = "diff --git ";
+
+    private HunkParser() {
+    }
+
+    /**
+     * Parses a single hunk header line.
+     *
+     * @param line A line of unified diff output.
+     * @return The range of merge base lines the hunk replaces, or {@code null} if the line is not a hunk header.
+     */
+    public static LineRange parseHeader(String line) {
+        if (!line.startsWith("@@")) return null;
+
+        Matcher matcher = HUNK_PATTERN.matcher(line);
+        if (!matcher.find()) return null;
+
+        int start = Integer.parseInt(matcher.group(1));
+        int count = matcher.group(2) == null ? 1 : Integer.parseInt(matcher.group(2));
+        return new LineRange(start, count);
+    }
+
+    /**
+     * Parses all hunk headers of a single file patch, as returned in the {@code patch} field of the GitHub compare API.
+     *
+     * @param patch The patch text of one file.
+     * @return The ranges of merge base lines changed by the patch, in ascending order.
+     * @throws IOException If the patch cannot be read.
+     */
+    public static List<LineRange> parse(Reader patch) throws IOException {
+        List<LineRange> ranges = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(patch);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            LineRange range = parseHeader(line);
+            if (range != null) ranges.add(range);
+        }
+        return ranges;
+    }
+
+    /**
+     * Parses the output of {@code git diff} for any number of files. Paths Git quotes in the {@code diff --git}
+     * header, because they contain {@code "}, {@code \} or control characters, are unquoted.
+     *
+     * @param diff The diff output, produced without renames.
+     * @return Map from each file in the diff to the ranges of merge base lines it changes, in ascending order.
+     *         Files without hunks, such as binary files, are mapped to an empty list.
+     * @throws IOException If the diff cannot be read.
+     */
+    public static Map<String, List<LineRange>> parseDiff(Reader diff) throws IOException {
+        Map<String, List<LineRange>> ranges = new LinkedHashMap<>();
+        BufferedReader reader = new BufferedReader(diff);
+        List<LineRange> current = null;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith(DIFF_HEADER)) {
+                current = new ArrayList<>();
+                ranges.put(parseDiffPath(line.substring(DIFF_HEADER.length())), current);
+            } else if (current != null) {
+                LineRange range = parseHeader(line);
+                if (range != null) current.add(range);
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * Both sides of a header name the same path when renames are off, so an unquoted {@code a/<path> b/<path>} is
+     * split in the middle, whatever spaces the path contains. Quoted sides always come in pairs.
+     */
+    private static String parseDiffPath(String paths) {
+        if (paths.startsWith("\"")) {
+            return unquote(paths).substring(2);
+        }
+        return paths.substring(2, 2 + (paths.length() - 5) / 2);
+    }
+
+    /**
+     * Decodes the C-style quoted string at the start of the text, as written by Git for unusual paths: backslash
+     * escapes and octal escapes of the UTF-8 bytes of non-printable characters.
+     */
+    private static String unquote(String text) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(text.length());
+        int run = 1;
+        int i = 1;
+        while (i < text.length() && text.charAt(i) != '"') {
+            if (text.charAt(i) != '\\') {
+                i++;
+                continue;
+            }
+            bytes.writeBytes(text.substring(run, i).getBytes(StandardCharsets.UTF_8));
+            char escaped = text.charAt(i + 1);
+            if (escaped >= '0' && escaped <= '7') {
+                bytes.write(Integer.parseInt(text.substring(i + 1, i + 4), 8));
+                i += 4;
+            } else {
+                bytes.write(switch (escaped) {
+                    case 'a' -> 0x07;
+                    case 'b' -> '\b';
+                    case 'f' -> '\f';
+                    case 'n' -> '\n';
+                    case 'r' -> '\r';
+                    case 't' -> '\t';
+                    case 'v' -> 0x0b;
+                    default -> escaped;
+                });
+                i += 2;
+            }
+            run = i;
+        }
+        bytes.writeBytes(text.substring(run, Math.min(i, text.length())).getBytes(StandardCharsets.UTF_8));
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+}
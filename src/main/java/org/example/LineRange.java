@@ -0,0 +1,53 @@
+package org.example;
+
+import java.util.List;
+
+/**
+ * Range of lines in the merge base version of a file that a hunk replaces.
+ * A count of zero denotes a pure insertion after line {@code start}.
+ *
+ * @param start The first line of the range (1-based), as reported in the {@code -start,count} part of a hunk header.
+ * @param count The number of lines the hunk replaces.
+ */
+public record LineRange(int start, int count) {
+
+    /**
+     * Checks whether two ranges overlap or are directly adjacent. Adjacent changes are treated as overlapping
+     * because Git's merge reports them as a conflict as well.
+     *
+     * @param other The range to compare with.
+     * @return {@code true} if merging both changes is expected to conflict.
+     */
+    public boolean overlaps(LineRange other) {
+        return start <= other.end() + 1 && other.start <= end() + 1;
+    }
+
+    private int end() {
+        return start + Math.max(count, 1) - 1;
+    }
+
+    /**
+     * Checks whether any range of the first list overlaps any range of the second one. Both lists are expected
+     * in ascending order, as hunks appear in a diff. An empty list means the changed lines are unknown
+     * (binary file or omitted patch) and is conservatively treated as overlapping.
+     *
+     * @param local Changed ranges of the local side.
+     * @param remote Changed ranges of the remote side.
+     * @return {@code true} if the changes are expected to conflict.
+     */
+    public static boolean anyOverlap(List<LineRange> local, List<LineRange> remote) {
+        if (local == null || remote == null || local.isEmpty() || remote.isEmpty()) return true;
+
+        int i = 0;
+        int j = 0;
+        while (i < local.size() && j < remote.size()) {
+            LineRange a = local.get(i);
+            LineRange b = remote.get(j);
+            if (a.overlaps(b)) return true;
+
+            if (a.end() < b.end()) i++;
+            else j++;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,16 @@
+package org.example;
+
+import java.util.List;
+
+/**
+ * Describes how the set of files modified in both branches changed after one of the branch heads moved.
+ *
+ * @param localHead The SHA of the local branch head the overlap was computed for.
+ * @param remoteHead The SHA of the remote branch head the overlap was computed for.
+ * @param added Files that are now modified in both branches but were not before.
+ * @param removed Files that were modified in both branches before but no longer are.
+ * @param overlap The complete current list of files modified in both branches.
+ */
+public record OverlapChange(String localHead, String remoteHead,
+                            List<String> added, List<String> removed, List<String> overlap) {
+}
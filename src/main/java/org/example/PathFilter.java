@@ -0,0 +1,118 @@
+package org.example;
+
+import java.util.*;
+
+/**
+ * Restricts a comparison to the subtrees a team cares about. Paths are literal, relative to the repository root and
+ * match themselves and everything below them, so {@code src/main} matches {@code src/main/App.java} but not
+ * {@code src/mainline.txt}. A path matches the filter if it matches any include (or there are no includes) and no
+ * exclude.
+ * <p>
+ * The filter is pushed down rather than applied to finished results: it becomes {@code :(literal)} and
+ * {@code :(exclude,literal)} pathspecs for Git, the {@code path} parameter of the GitHub commits endpoint when it
+ * can express it, and a predicate evaluated while a GitHub compare response is being parsed.
+ */
+public final class PathFilter {
+    public static final PathFilter ALL = new PathFilter(List.of(), List.of());
+
+    private final List<String> includes;
+    private final List<String> excludes;
+
+    private PathFilter(List<String> includes, List<String> excludes) {
+        this.includes = includes;
+        this.excludes = excludes;
+    }
+
+    /**
+     * @param includes The paths to limit the comparison to; empty to start from the whole tree.
+     * @param excludes The paths to leave out.
+     * @return The filter.
+     * @throws IllegalArgumentException If a path is empty or absolute.
+     */
+    public static PathFilter of(Collection<String> includes, Collection<String> excludes) {
+        return new PathFilter(normalize(includes), normalize(excludes));
+    }
+
+    public static PathFilter including(String... paths) {
+        return of(List.of(paths), List.of());
+    }
+
+    public static PathFilter excluding(String... paths) {
+        return of(List.of(), List.of(paths));
+    }
+
+    /**
+     * @param path A file path relative to the repository root.
+     * @return {@code true} if the path is within the area of interest.
+     */
+    public boolean matches(String path) {
+        if (!includes.isEmpty() && includes.stream().noneMatch(prefix -> covers(prefix, path))) return false;
+        return excludes.stream().noneMatch(prefix -> covers(prefix, path));
+    }
+
+    /**
+     * @return {@code true} if the filter matches every path.
+     */
+    public boolean isAll() {
+        return includes.isEmpty() && excludes.isEmpty();
+    }
+
+    /**
+     * @return The filter as Git pathspecs, to be passed after {@code --}; empty if the filter matches every path.
+     */
+    public List<String> toPathspecs() {
+        List<String> pathspecs = new ArrayList<>(includes.size() + excludes.size());
+        includes.forEach(path -> pathspecs.add(":(literal)" + path));
+        excludes.forEach(path -> pathspecs.add(":(exclude,literal)" + path));
+        return pathspecs;
+    }
+
+    /**
+     * The GitHub commits endpoint filters by a single path only, so a history can be filtered remotely exactly as
+     * {@code git rev-list} filters it locally only for a single include without excludes.
+     *
+     * @return The only include, if the filter consists of exactly one include.
+     */
+    public Optional<String> singleInclude() {
+        return includes.size() == 1 && excludes.isEmpty() ? Optional.of(includes.getFirst()) : Optional.empty();
+    }
+
+    public List<String> getIncludes() {
+        return includes;
+    }
+
+    public List<String> getExcludes() {
+        return excludes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PathFilter other && includes.equals(other.includes) && excludes.equals(other.excludes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(includes, excludes);
+    }
+
+    @Override
+    public String toString() {
+        return String.join(" ", toPathspecs());
+    }
+
+    private static boolean covers(String prefix, String path) {
+        return path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/');
+    }
+
+    private static List<String> normalize(Collection<String> paths) {
+        SortedSet<String> normalized = new TreeSet<>();
+        for (String path : paths) {
+            String trimmed = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+            if (trimmed.isEmpty() || trimmed.startsWith("/")) {
+                throw new IllegalArgumentException("Paths must be relative to the repository root: '" + path + "'");
+            }
+            normalized.add(trimmed);
+        }
+        return List.copyOf(normalized);
+    }
+}
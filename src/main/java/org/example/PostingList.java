@@ -0,0 +1,110 @@
+package org.example;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * An immutable, sorted set of branch ids stored as variable-length encoded gaps between consecutive ids, so that a
+ * path touched by a thousand densely numbered branches costs little more than a kilobyte.
+ */
+final class PostingList {
+    static final PostingList EMPTY = new PostingList(new byte[0], 0);
+
+    private final byte[] data;
+    private final int size;
+
+    private PostingList(byte[] data, int size) {
+        this.data = data;
+        this.size = size;
+    }
+
+    /**
+     * @param ids The ids to store, in strictly ascending order.
+     * @return The encoded list.
+     */
+    static PostingList of(int[] ids) {
+        if (ids.length == 0) return EMPTY;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(ids.length + 4);
+        int previous = -1;
+        for (int id : ids) {
+            int gap = id - previous;
+            while ((gap & ~0x7f) != 0) {
+                out.write((gap & 0x7f) | 0x80);
+                gap >>>= 7;
+            }
+            out.write(gap);
+            previous = id;
+        }
+        return new PostingList(out.toByteArray(), ids.length);
+    }
+
+    /**
+     * @return A copy of this list that also contains {@code id}.
+     */
+    PostingList with(int id) {
+        int[] ids = toArray();
+        int index = Arrays.binarySearch(ids, id);
+        if (index >= 0) return this;
+
+        int insert = -index - 1;
+        int[] result = new int[ids.length + 1];
+        System.arraycopy(ids, 0, result, 0, insert);
+        result[insert] = id;
+        System.arraycopy(ids, insert, result, insert + 1, ids.length - insert);
+        return of(result);
+    }
+
+    /**
+     * @return A copy of this list without {@code id}.
+     */
+    PostingList without(int id) {
+        int[] ids = toArray();
+        int index = Arrays.binarySearch(ids, id);
+        if (index < 0) return this;
+
+        int[] result = new int[ids.length - 1];
+        System.arraycopy(ids, 0, result, 0, index);
+        System.arraycopy(ids, index + 1, result, index, ids.length - index - 1);
+        return of(result);
+    }
+
+    /**
+     * Adds all ids of this list to the given set without materialising them as an array.
+     */
+    void addTo(BitSet target) {
+        int id = -1;
+        int position = 0;
+        while (position < data.length) {
+            int gap = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                gap |= (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+            id += gap;
+            target.set(id);
+        }
+    }
+
+    int[] toArray() {
+        BitSet ids = new BitSet();
+        addTo(ids);
+        return ids.stream().toArray();
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int sizeInBytes() {
+        return data.length;
+    }
+}
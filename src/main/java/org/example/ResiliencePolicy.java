@@ -0,0 +1,44 @@
+package org.example;
+
+import java.time.Duration;
+
+/**
+ * Configures how {@link GitHubApiClient} handles slow and failing GitHub requests.
+ *
+ * @param maxRetries How many times a failed GET (I/O error, timeout, {@code 429}, {@code 5xx}, or {@code 403} with
+ *                   {@code Retry-After} for a secondary rate limit) is retried.
+ * @param baseBackoff The backoff before the first retry; it doubles with every further retry and is fully jittered.
+ * @param maxBackoff Upper bound for a single backoff.
+ * @param hedging Whether a duplicate request is sent when the first one is slower than the observed p95 latency.
+ * @param initialHedgeDelay Hedge delay used until enough latencies have been observed to compute a p95.
+ * @param requestTimeout Timeout of a single request attempt.
+ * @param budget Total time one operation may take, including retries and backoffs, or {@code null} for no limit.
+ *               A {@link BranchComparator} comparison is one operation, from resolving the remote head through
+ *               paginating its history to the compare; a client call made on its own, without a deadline from
+ *               {@link GitHubApiClient#newDeadline()}, is one as well.
+ * @param breakerFailureThreshold Number of consecutive failures after which the circuit breaker opens,
+ *                                or {@code 0} to disable it.
+ * @param breakerOpenDuration How long the circuit breaker rejects requests before letting a trial request through.
+ */
+public record ResiliencePolicy(int maxRetries, Duration baseBackoff, Duration maxBackoff,
+                               boolean hedging, Duration initialHedgeDelay,
+                               Duration requestTimeout, Duration budget,
+                               int breakerFailureThreshold, Duration breakerOpenDuration) {
+
+    /**
+     * @return A policy that sends every request exactly once, with a 10 second timeout.
+     */
+    public static ResiliencePolicy none() {
+        return new ResiliencePolicy(0, Duration.ZERO, Duration.ZERO, false, Duration.ZERO,
+                Duration.ofSeconds(10), null, 0, Duration.ZERO);
+    }
+
+    /**
+     * @return A policy with 3 jittered retries, p95-based hedging, a 60 second budget per operation and a circuit breaker
+     *         that opens for 30 seconds after 5 consecutive failures.
+     */
+    public static ResiliencePolicy defaults() {
+        return new ResiliencePolicy(3, Duration.ofMillis(200), Duration.ofSeconds(5), true, Duration.ofSeconds(1),
+                Duration.ofSeconds(10), Duration.ofSeconds(60), 5, Duration.ofSeconds(30));
+    }
+}
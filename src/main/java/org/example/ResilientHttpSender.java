@@ -0,0 +1,250 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * Sends idempotent GitHub requests according to a {@link ResiliencePolicy}: failed attempts are retried with
+ * jittered exponential backoff, or after the {@code Retry-After} of a rate limited response, slow attempts are hedged
+ * with a duplicate request after the observed p95 latency, every attempt is bounded by the remaining budget of the
+ * calling operation, and a {@link CircuitBreaker} fails fast while GitHub keeps failing.
+ * <p>
+ * Retryable responses that are still failing after the last attempt, or whose {@code Retry-After} ends after the
+ * deadline, are returned to the caller right away, so error reporting stays with the caller; I/O errors, exhausted
+ * budgets and an open breaker are thrown as {@link IOException}.
+ */
+public class ResilientHttpSender {
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(429, 500, 502, 503, 504);
+    private static final int LATENCY_WINDOW = 128;
+    private static final int MIN_LATENCY_SAMPLES = 20;
+
+    private final HttpClient client;
+    private final ResiliencePolicy policy;
+    private final CircuitBreaker breaker;
+
+    private final long[] latencies = new long[LATENCY_WINDOW];
+    private int latencyCount;
+
+    public ResilientHttpSender(HttpClient client, ResiliencePolicy policy) {
+        this.client = client;
+        this.policy = policy;
+        this.breaker = new CircuitBreaker(policy.breakerFailureThreshold(), policy.breakerOpenDuration());
+    }
+
+    /**
+     * @return The deadline (in {@link System#nanoTime()} units) for an operation starting now,
+     *         or {@link Long#MAX_VALUE} if the policy has no budget.
+     */
+    public long newDeadline() {
+        return policy.budget() == null ? Long.MAX_VALUE : System.nanoTime() + policy.budget().toNanos();
+    }
+
+    /**
+     * Sends a GET request, retrying and hedging it as configured.
+     *
+     * @param request The request to send.
+     * @param handler The body handler for the response.
+     * @param deadline The deadline of the calling operation, as returned by {@link #newDeadline()}.
+     * @return The first successful response, or the last retryable error response once retries are exhausted.
+     * @throws IOException If every attempt failed with an I/O error, the budget ran out or the circuit breaker is open.
+     * @throws InterruptedException If the calling thread was interrupted.
+     */
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler, long deadline) throws IOException, InterruptedException {
+        IOException lastFailure = null;
+        try {
+            for (int attempt = 0; ; attempt++) {
+                if (!breaker.allowRequest()) {
+                    throw new IOException("GitHub circuit breaker is open");
+                }
+
+                long remaining = remainingNanos(deadline);
+                if (remaining <= 0) {
+                    throw lastFailure != null ? lastFailure : new HttpTimeoutException("GitHub request budget exhausted");
+                }
+
+                HttpRequest attemptRequest = withTimeout(request, remaining);
+                HttpResponse<T> response;
+                try {
+                    response = policy.hedging() ? sendHedged(attemptRequest, handler) : sendTimed(attemptRequest, handler);
+                } catch (IOException e) {
+                    breaker.onFailure();
+                    lastFailure = e;
+                    if (attempt >= policy.maxRetries()) throw e;
+
+                    backoff(attempt, null, deadline);
+                    continue;
+                }
+
+                if (!isRetryable(response)) {
+                    breaker.onSuccess();
+                    return response;
+                }
+
+                breaker.onFailure();
+                // Waiting out a Retry-After that ends after the deadline would only spend the budget on a retry
+                // that can never be sent.
+                if (attempt >= policy.maxRetries() || retryAfterNanos(response) > remainingNanos(deadline)) return response;
+
+                closeBody(response);
+                backoff(attempt, response, deadline);
+            }
+        } finally {
+            // A trial that was interrupted or failed unexpectedly never reached onSuccess() or onFailure(); without the
+            // release every later request would be rejected as if the trial were still running.
+            breaker.release();
+        }
+    }
+
+    private <T> HttpResponse<T> sendTimed(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<T> response = client.send(request, handler);
+        recordLatency(System.nanoTime() - start);
+        return response;
+    }
+
+    /**
+     * Only the latency of the attempt that produced the response is recorded, never the time since the primary was
+     * sent: a hedge that wins was sent after the hedge delay, and counting that delay would push the p95, and with it
+     * the next hedge delay, further up with every hedged request.
+     */
+    private <T> HttpResponse<T> sendHedged(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<T>> primary = client.sendAsync(request, handler);
+        CompletableFuture<HttpResponse<T>> hedge = null;
+        HttpResponse<T> response = null;
+
+        try {
+            try {
+                response = primary.get(hedgeDelayNanos(), TimeUnit.NANOSECONDS);
+                recordLatency(System.nanoTime() - start);
+                return response;
+            } catch (TimeoutException e) {
+                hedge = client.sendAsync(request, handler);
+            }
+            long hedgeStart = System.nanoTime();
+
+            response = firstSuccessful(primary, hedge).get();
+            boolean primaryWon = primary.isDone() && !primary.isCompletedExceptionally() && primary.join() == response;
+            recordLatency(System.nanoTime() - (primaryWon ? start : hedgeStart));
+            return response;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof IOException ioException) throw ioException;
+            throw new IOException(cause);
+        } finally {
+            discardLoser(primary, response);
+            if (hedge != null) discardLoser(hedge, response);
+        }
+    }
+
+    private static <T> CompletableFuture<HttpResponse<T>> firstSuccessful(CompletableFuture<HttpResponse<T>> first,
+                                                                          CompletableFuture<HttpResponse<T>> second) {
+        CompletableFuture<HttpResponse<T>> winner = new CompletableFuture<>();
+        first.whenComplete((response, failure) -> {
+            if (failure == null) winner.complete(response);
+            else second.whenComplete((ignored, secondFailure) -> {
+                if (secondFailure != null) winner.completeExceptionally(failure);
+            });
+        });
+        second.whenComplete((response, failure) -> {
+            if (failure == null) winner.complete(response);
+            else first.whenComplete((ignored, firstFailure) -> {
+                if (firstFailure != null) winner.completeExceptionally(failure);
+            });
+        });
+        return winner;
+    }
+
+    /**
+     * Cancels an attempt that has not completed yet, and closes the body of one that completed, now or later, with a
+     * response other than the winner, so that a streamed body does not hold on to its pooled connection.
+     */
+    private static <T> void discardLoser(CompletableFuture<HttpResponse<T>> future, HttpResponse<T> winner) {
+        future.cancel(true);
+        future.thenAccept(response -> {
+            if (response != winner) closeBody(response);
+        });
+    }
+
+    private long hedgeDelayNanos() {
+        synchronized (latencies) {
+            if (latencyCount < MIN_LATENCY_SAMPLES) return policy.initialHedgeDelay().toNanos();
+
+            long[] window = Arrays.copyOf(latencies, Math.min(latencyCount, LATENCY_WINDOW));
+            Arrays.sort(window);
+            return window[(int) Math.ceil(window.length * 0.95) - 1];
+        }
+    }
+
+    private void recordLatency(long nanos) {
+        synchronized (latencies) {
+            latencies[latencyCount % LATENCY_WINDOW] = nanos;
+            latencyCount++;
+        }
+    }
+
+    private HttpRequest withTimeout(HttpRequest request, long remainingNanos) {
+        Duration timeout = policy.requestTimeout();
+        if (remainingNanos < timeout.toNanos()) {
+            timeout = Duration.ofNanos(remainingNanos);
+        }
+        if (request.timeout().filter(timeout::equals).isPresent()) return request;
+
+        return HttpRequest.newBuilder(request, (name, value) -> true).timeout(timeout).build();
+    }
+
+    /**
+     * GitHub answers its secondary rate limits with {@code 403} and a {@code Retry-After} header; a {@code 403}
+     * without it (missing permissions, or an exhausted primary rate limit that only resets with the window) is final.
+     */
+    private static boolean isRetryable(HttpResponse<?> response) {
+        int status = response.statusCode();
+        if (RETRYABLE_STATUSES.contains(status)) return true;
+        return status == 403 && retryAfterNanos(response) >= 0;
+    }
+
+    private void backoff(int attempt, HttpResponse<?> response, long deadline) throws InterruptedException {
+        long sleepNanos = retryAfterNanos(response);
+        if (sleepNanos < 0) {
+            long cap = Math.min(policy.maxBackoff().toNanos(), policy.baseBackoff().toNanos() << Math.min(attempt, 30));
+            sleepNanos = cap <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+        }
+
+        sleepNanos = Math.min(sleepNanos, Math.max(0, remainingNanos(deadline)));
+        if (sleepNanos > 0) TimeUnit.NANOSECONDS.sleep(sleepNanos);
+    }
+
+    private static long remainingNanos(long deadline) {
+        return deadline == Long.MAX_VALUE ? Long.MAX_VALUE : deadline - System.nanoTime();
+    }
+
+    private static long retryAfterNanos(HttpResponse<?> response) {
+        if (response == null || response.headers() == null) return -1;
+
+        try {
+            return response.headers().firstValue("Retry-After")
+                    .map(value -> TimeUnit.SECONDS.toNanos(Long.parseLong(value.trim())))
+                    .orElse(-1L);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void closeBody(HttpResponse<?> response) {
+        if (response.body() instanceof Closeable body) {
+            try {
+                body.close();
+            } catch (IOException ignored) {
+                // The response is discarded, a failing close changes nothing.
+            }
+        }
+    }
+}
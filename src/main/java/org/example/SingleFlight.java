@@ -0,0 +1,116 @@
+package org.example;
+
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Deduplicates concurrent calls for the same key: while a call is in flight, every other caller asking for the same
+ * key waits for its result instead of starting a new one.
+ * <p>
+ * The loader runs on the thread of the caller that started it, so an uncontended call costs no extra thread. If that
+ * caller is interrupted and the loader fails because of it (with an {@link InterruptedException} in its cause chain or
+ * the interrupt flag still set), the callers waiting on it start a fresh call instead of failing with it. Results are
+ * not cached: once a call completes, the next caller starts a fresh one.
+ * <p>
+ * Callers are deliberately not reference-counted. Running the loader on a shared pool and cancelling it only when the
+ * last waiter leaves would let a load outlive an interrupted first caller, but would cost a thread hand-off on every
+ * call, including the common uncontended one. The price of running it on the first caller's thread instead is that
+ * interrupting that caller abandons the load for everyone: the work done so far is lost, and the waiting callers run
+ * the loader again, on the thread of whichever of them gets there first.
+ *
+ * @param <K> The type of the keys identifying identical calls.
+ * @param <V> The type of the results.
+ */
+public class SingleFlight<K, V> {
+
+    private static final class Call<V> {
+        private final FutureTask<V> task;
+
+        private Call(Callable<V> loader) {
+            this.task = new FutureTask<>(() -> {
+                try {
+                    return loader.call();
+                } catch (Exception e) {
+                    if (Thread.currentThread().isInterrupted() || isInterruption(e)) throw new Abandoned(e);
+                    throw e;
+                }
+            });
+        }
+    }
+
+    /**
+     * Marks a call whose loader failed because the caller running it was interrupted.
+     */
+    private static final class Abandoned extends RuntimeException {
+        private Abandoned(Exception cause) {
+            super(cause);
+        }
+    }
+
+    private final Map<K, Call<V>> calls = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the result of the in-flight call for {@code key}, starting {@code loader} if there is none.
+     *
+     * @param key The key identifying identical calls.
+     * @param loader Computes the result; only invoked if no call for {@code key} is in flight.
+     * @return The result of the shared call.
+     * @throws ExecutionException If the loader threw an exception; the original exception is its cause.
+     * @throws InterruptedException If the calling thread was interrupted while running the loader.
+     */
+    public V execute(K key, Callable<V> loader) throws ExecutionException, InterruptedException {
+        while (true) {
+            AtomicReference<Call<V>> started = new AtomicReference<>();
+            Call<V> call = calls.compute(key, (k, existing) -> {
+                if (existing != null && !existing.task.isDone()) return existing;
+                started.set(new Call<>(loader));
+                return started.get();
+            });
+
+            if (started.get() != null) {
+                return run(key, call);
+            }
+
+            try {
+                return call.task.get();
+            } catch (ExecutionException e) {
+                if (!(e.getCause() instanceof Abandoned)) throw e;
+            }
+        }
+    }
+
+    /**
+     * @return The number of calls currently in flight.
+     */
+    public int inFlight() {
+        return calls.size();
+    }
+
+    private V run(K key, Call<V> call) throws ExecutionException, InterruptedException {
+        try {
+            call.task.run();
+        } finally {
+            calls.remove(key, call);
+        }
+
+        try {
+            return call.task.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Abandoned abandoned) {
+                Thread.interrupted();
+                InterruptedException interrupted = new InterruptedException("Shared call was interrupted");
+                interrupted.initCause(abandoned.getCause());
+                throw interrupted;
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isInterruption(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException) return true;
+        }
+        return false;
+    }
+}
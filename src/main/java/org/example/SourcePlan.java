@@ -0,0 +1,39 @@
+package org.example;
+
+/**
+ * Describes where {@link BranchComparator} reads the remote side of a comparison from, as chosen by {@link SourcePlanner}.
+ *
+ * @param strategy The chosen way of obtaining the remote history and diff.
+ * @param remoteHead The SHA the remote branch currently points to on GitHub.
+ * @param localCommit The SHA of the locally available commit the plan builds on (the remote head itself for
+ *                    {@link Strategy#LOCAL}, the remote-tracking ref for {@link Strategy#HYBRID}), or {@code null}.
+ * @param httpRequests Estimated number of GitHub API requests the plan needs, excluding the head lookup.
+ * @param gitProcesses Estimated number of Git subprocesses the plan needs.
+ */
+public record SourcePlan(Strategy strategy, String remoteHead, String localCommit, int httpRequests, int gitProcesses) {
+
+    public enum Strategy {
+        /**
+         * The remote head is present in the local repository: history and diff are read with Git only.
+         */
+        LOCAL,
+        /**
+         * A stale remote-tracking ref exists: only the commits newer than it are paged from GitHub,
+         * the rest of the history is read locally and the diff comes from the compare API.
+         */
+        HYBRID,
+        /**
+         * Nothing useful is available locally: history and diff are fetched from GitHub.
+         */
+        REMOTE
+    }
+
+    /**
+     * @param httpRequestCost Relative cost of a single GitHub API request.
+     * @param gitProcessCost Relative cost of a single Git subprocess.
+     * @return Weighted cost of the plan.
+     */
+    public int cost(int httpRequestCost, int gitProcessCost) {
+        return httpRequests * httpRequestCost + gitProcesses * gitProcessCost;
+    }
+}
@@ -0,0 +1,82 @@
+package org.example;
+
+import org.example.exceptions.GitCommandException;
+import org.example.exceptions.GitHubApiException;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Decides how the remote side of a comparison is obtained, preferring commits that are already present in the
+ * local clone over GitHub API calls.
+ * <p>
+ * The remote head is always resolved through a conditional API request first. Every plan that is feasible for
+ * that head is then priced with a simple cost model (one HTTP request weighs as much as {@link #HTTP_REQUEST_COST}
+ * Git subprocesses) and the cheapest one is returned.
+ */
+public class SourcePlanner {
+    static final int HTTP_REQUEST_COST = 20;
+    static final int GIT_PROCESS_COST = 1;
+    static final int COMMITS_PER_PAGE = 30;
+
+    private final GitCommandExecutor git;
+    private final GitHubApiClient github;
+    private final String remoteName;
+
+    public SourcePlanner(GitCommandExecutor git, GitHubApiClient github) {
+        this(git, github, "origin");
+    }
+
+    public SourcePlanner(GitCommandExecutor git, GitHubApiClient github, String remoteName) {
+        this.git = git;
+        this.github = github;
+        this.remoteName = remoteName;
+    }
+
+    /**
+     * Chooses the cheapest way of reading the history and modified files of the given remote branch.
+     *
+     * @param remoteBranch The name of the remote branch.
+     * @return The cheapest feasible plan.
+     * @throws GitCommandException If an error occurs while inspecting the local repository.
+     * @throws GitHubApiException If an error occurs while resolving the remote branch head.
+     */
+    public SourcePlan plan(String remoteBranch) throws GitCommandException, GitHubApiException {
+        return plan(remoteBranch, github.newDeadline());
+    }
+
+    /**
+     * Like {@link #plan(String)}, with the remote head resolved within the budget of the calling comparison.
+     *
+     * @param remoteBranch The name of the remote branch.
+     * @param deadline The deadline of the calling comparison, as returned by {@link GitHubApiClient#newDeadline()}.
+     * @return The cheapest feasible plan.
+     * @throws GitCommandException If an error occurs while inspecting the local repository.
+     * @throws GitHubApiException If an error occurs while resolving the remote branch head.
+     */
+    public SourcePlan plan(String remoteBranch, long deadline) throws GitCommandException, GitHubApiException {
+        String remoteHead = github.getHeadCommit(remoteBranch, deadline);
+
+        if (git.findCommit(remoteHead).isPresent()) {
+            return new SourcePlan(SourcePlan.Strategy.LOCAL, remoteHead, remoteHead, 0, 2);
+        }
+
+        Optional<String> tracking = git.findCommit(String.format("refs/remotes/%s/%s", remoteName, remoteBranch));
+        if (tracking.isEmpty()) {
+            return new SourcePlan(SourcePlan.Strategy.REMOTE, remoteHead, null, 2, 0);
+        }
+
+        int trackedCommits = git.countCommits(tracking.get());
+        int fullHistoryPages = Math.max(1, (trackedCommits + COMMITS_PER_PAGE - 1) / COMMITS_PER_PAGE);
+
+        List<SourcePlan> candidates = List.of(
+                new SourcePlan(SourcePlan.Strategy.HYBRID, remoteHead, tracking.get(), 2, 1),
+                new SourcePlan(SourcePlan.Strategy.REMOTE, remoteHead, null, fullHistoryPages + 1, 0)
+        );
+
+        return candidates.stream()
+                .min(Comparator.comparingInt(plan -> plan.cost(HTTP_REQUEST_COST, GIT_PROCESS_COST)))
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,154 @@
+import org.example.BranchComparator;
+import org.example.BranchComparatorCli;
+import org.example.PathFilter;
+import org.example.exceptions.GitHubApiException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class BranchComparatorCliTest {
+
+    @Mock
+    private BranchComparator mockComparator;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private int run(BranchComparatorCli.Options options) {
+        return BranchComparatorCli.run(options, mockComparator, new PrintStream(out, true), new PrintStream(err, true));
+    }
+
+    @Test
+    @DisplayName("Test Options.parse() - All options")
+    void testParse_AllOptions() {
+        BranchComparatorCli.Options options = BranchComparatorCli.Options.parse(new String[]{
+                "--repo", "/work", "--github", "octo/app", "--local", "feature", "--remote", "main",
+                "--include", "src", "--exclude", "src/gen", "--fail-on-overlap", "--api-url", "https://ghe/api/v3"});
+
+        assertEquals("/work", options.repoPath());
+        assertEquals("octo", options.owner());
+        assertEquals("app", options.repo());
+        assertEquals(PathFilter.of(List.of("src"), List.of("src/gen")), options.filter());
+        assertTrue(options.failOnOverlap());
+        assertFalse(options.conflicts());
+        assertEquals("https://ghe/api/v3", options.apiUrl());
+    }
+
+    @Test
+    @DisplayName("Test run() - Invalid arguments or missing token - Usage exit code")
+    void testRun_InvalidArguments_UsageExitCode() {
+        PrintStream stdout = new PrintStream(out, true);
+        PrintStream stderr = new PrintStream(err, true);
+        String[] valid = {"--github", "octo/app", "--local", "feature", "--remote", "main"};
+
+        assertEquals(BranchComparatorCli.EXIT_USAGE, BranchComparatorCli.run(new String[]{"--github", "octo", "--local", "a", "--remote", "b"}, Map.of(), stdout, stderr));
+        assertEquals(BranchComparatorCli.EXIT_USAGE, BranchComparatorCli.run(new String[]{"--local"}, Map.of(), stdout, stderr));
+        assertEquals(BranchComparatorCli.EXIT_USAGE, BranchComparatorCli.run(valid, Map.of(), stdout, stderr));
+        assertTrue(err.toString().contains("GITHUB_TOKEN"));
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    @DisplayName("Test run() - GITHUB_TOKEN blank - Falls back to GH_TOKEN")
+    void testRun_BlankGithubToken_FallsBackToGhToken(@TempDir Path tempDir) {
+        String[] args = {"--github", "octo/app", "--local", "feature", "--remote", "main",
+                "--repo", tempDir.toString(), "--api-url", "http://127.0.0.1:1"};
+        PrintStream stdout = new PrintStream(out, true);
+        PrintStream stderr = new PrintStream(err, true);
+
+        assertEquals(BranchComparatorCli.EXIT_USAGE,
+                BranchComparatorCli.run(args, Map.of("GITHUB_TOKEN", " ", "GH_TOKEN", ""), stdout, stderr));
+        assertTrue(err.toString().contains("set GITHUB_TOKEN or GH_TOKEN"));
+
+        err.reset();
+        assertEquals(BranchComparatorCli.EXIT_FAILURE,
+                BranchComparatorCli.run(args, Map.of("GITHUB_TOKEN", " ", "GH_TOKEN", "token"), stdout, stderr));
+        assertFalse(err.toString().contains("set GITHUB_TOKEN or GH_TOKEN"));
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    @DisplayName("Test run() - Overlapping files - JSON output and overlap exit code")
+    void testRun_Overlap_PrintsJson() throws Exception {
+        BranchComparatorCli.Options options = BranchComparatorCli.Options.parse(new String[]{
+                "--github", "octo/app", "--local", "feature", "--remote", "main", "--include", "src", "--fail-on-overlap"});
+        when(mockComparator.compareModifiedFiles("feature", "main", PathFilter.including("src"))).thenReturn(List.of("src/A.java"));
+
+        assertEquals(BranchComparatorCli.EXIT_OVERLAP, run(options));
+        assertEquals("{\"local\":\"feature\",\"remote\":\"main\",\"files\":[\"src/A.java\"]}", out.toString().trim());
+    }
+
+    @Test
+    @DisplayName("Test run() - Conflicts mode - Uses conflict prediction")
+    void testRun_Conflicts_UsesFindConflictingFiles() throws Exception {
+        BranchComparatorCli.Options options = BranchComparatorCli.Options.parse(new String[]{
+                "--github", "octo/app", "--local", "feature", "--remote", "main", "--conflicts"});
+        when(mockComparator.findConflictingFiles("feature", "main")).thenReturn(List.of());
+
+        assertEquals(BranchComparatorCli.EXIT_OK, run(options));
+        assertEquals("{\"local\":\"feature\",\"remote\":\"main\",\"files\":[]}", out.toString().trim());
+        verify(mockComparator, never()).compareModifiedFiles(any(), any());
+    }
+
+    @Test
+    @DisplayName("Test run() - GitHub failure - Failure exit code")
+    void testRun_GitHubFailure_FailureExitCode() throws Exception {
+        BranchComparatorCli.Options options = BranchComparatorCli.Options.parse(new String[]{
+                "--github", "octo/app", "--local", "feature", "--remote", "main"});
+        when(mockComparator.compareModifiedFiles("feature", "main", PathFilter.ALL)).thenThrow(new GitHubApiException("rate limited"));
+
+        assertEquals(BranchComparatorCli.EXIT_FAILURE, run(options));
+        assertTrue(err.toString().contains("rate limited"));
+    }
+
+    @Test
+    @DisplayName("Test run() - Invalid --api-url - Usage exit code")
+    void testRun_InvalidApiUrl_UsageExitCode() {
+        String[] base = {"--github", "octo/app", "--local", "feature", "--remote", "main", "--api-url"};
+        Map<String, String> env = Map.of("GITHUB_TOKEN", "token");
+
+        for (String apiUrl : List.of("api.github.com", "ftp://ghe/api/v3", "https://", "https://ghe/api v3", "https://ghe/api?x=1")) {
+            String[] args = Arrays.copyOf(base, base.length + 1);
+            args[base.length] = apiUrl;
+            assertEquals(BranchComparatorCli.EXIT_USAGE,
+                    BranchComparatorCli.run(args, env, new PrintStream(out, true), new PrintStream(err, true)), apiUrl);
+        }
+        assertTrue(err.toString().contains("--api-url must be an http(s) URL"));
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    @DisplayName("Test run() - Unchecked exception - Failure or usage exit code, never the overlap exit code")
+    void testRun_RuntimeException_FailureExitCode() throws Exception {
+        BranchComparatorCli.Options options = BranchComparatorCli.Options.parse(new String[]{
+                "--github", "octo/app", "--local", "feature", "--remote", "main"});
+        when(mockComparator.compareModifiedFiles("feature", "main", PathFilter.ALL))
+                .thenThrow(new IllegalStateException("unexpected response"))
+                .thenThrow(new IllegalArgumentException("Illegal character in path"));
+
+        assertEquals(BranchComparatorCli.EXIT_FAILURE, run(options));
+        assertTrue(err.toString().contains("unexpected response"));
+
+        assertEquals(BranchComparatorCli.EXIT_USAGE, run(options));
+        assertTrue(err.toString().contains("Illegal character in path"));
+        assertEquals(0, out.size());
+    }
+}
@@ -1,22 +1,39 @@
 import org.example.GitCommandExecutor;
 import org.example.BranchComparator;
+import org.example.ChangedPathIndex;
+import org.example.ComparisonResult;
+import org.example.LineRange;
+import org.example.PathFilter;
+import org.example.SourcePlan;
+import org.example.SourcePlanner;
 import org.example.GitHubApiClient;
+import org.example.CommandUtils;
+import org.example.ResiliencePolicy;
 import org.example.exceptions.GitCommandException;
 import org.example.exceptions.GitHubApiException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 public class BranchComparatorTest {
+    private static final long DEADLINE = 42L;
 
     @Mock
     private GitCommandExecutor mockGit;
@@ -29,6 +46,7 @@ public class BranchComparatorTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(mockGitHub.newDeadline()).thenReturn(DEADLINE);
         comparator = new BranchComparator(mockGit, mockGitHub);
     }
 
@@ -43,10 +61,10 @@ public class BranchComparatorTest {
                                   List<String> expectedCommonModified) throws Exception {
 
         when(mockGit.getCommitHistory(localBranch)).thenReturn(localHistory);
-        when(mockGitHub.getCommitHistory(remoteBranch)).thenReturn(remoteHistory);
+        when(mockGitHub.getCommitHistory(remoteBranch, DEADLINE)).thenReturn(remoteHistory);
 
         when(mockGit.getModifiedFilesNames(baseCommit, lastLocalCommit)).thenReturn(localModified);
-        when(mockGitHub.getModifiedFilesNames(baseCommit, lastRemoteCommit)).thenReturn(remoteModified);
+        when(mockGitHub.getModifiedFilesNames(baseCommit, lastRemoteCommit, DEADLINE)).thenReturn(remoteModified);
 
         List<String> commonModifiedFiles = comparator.compareModifiedFiles(localBranch, remoteBranch);
 
@@ -55,14 +73,15 @@ public class BranchComparatorTest {
         assertEquals(expectedCommonModified, commonModifiedFiles);
 
         verify(mockGit).getCommitHistory(localBranch);
-        verify(mockGitHub).getCommitHistory(remoteBranch);
+        verify(mockGitHub, times(1)).newDeadline();
+        verify(mockGitHub).getCommitHistory(remoteBranch, DEADLINE);
 
         if (baseCommit != null) {
             verify(mockGit).getModifiedFilesNames(baseCommit, lastLocalCommit);
-            verify(mockGitHub).getModifiedFilesNames(baseCommit, lastRemoteCommit);
+            verify(mockGitHub).getModifiedFilesNames(baseCommit, lastRemoteCommit, DEADLINE);
         } else {
             verify(mockGit, never()).getModifiedFilesNames(any(), any());
-            verify(mockGitHub, never()).getModifiedFilesNames(any(), any());
+            verify(mockGitHub, never()).getModifiedFilesNames(anyString(), anyString(), anyLong());
         }
     }
 
@@ -84,12 +103,12 @@ public class BranchComparatorTest {
         String local = "feature", remote = "main";
 
         when(mockGit.getCommitHistory(local)).thenReturn(List.of("c1", "c2"));
-        when(mockGitHub.getCommitHistory(remote)).thenThrow(new GitHubApiException("GitHub error"));
+        when(mockGitHub.getCommitHistory(remote, DEADLINE)).thenThrow(new GitHubApiException("GitHub error"));
 
         assertThrows(GitHubApiException.class, () -> comparator.compareModifiedFiles(local, remote));
 
         verify(mockGit).getCommitHistory(local);
-        verify(mockGitHub).getCommitHistory(remote);
+        verify(mockGitHub).getCommitHistory(remote, DEADLINE);
     }
 
     @ParameterizedTest
@@ -101,14 +120,14 @@ public class BranchComparatorTest {
                                                                                                      String baseCommit) throws Exception {
 
         when(mockGit.getCommitHistory(localBranch)).thenReturn(localHistory);
-        when(mockGitHub.getCommitHistory(remoteBranch)).thenReturn(remoteHistory);
+        when(mockGitHub.getCommitHistory(remoteBranch, DEADLINE)).thenReturn(remoteHistory);
 
         when(mockGit.getModifiedFilesNames(baseCommit, lastLocalCommit)).thenThrow(new GitCommandException("Git error"));
 
         assertThrows(GitCommandException.class, () -> comparator.compareModifiedFiles(localBranch, remoteBranch));
 
         verify(mockGit).getCommitHistory(localBranch);
-        verify(mockGitHub).getCommitHistory(remoteBranch);
+        verify(mockGitHub).getCommitHistory(remoteBranch, DEADLINE);
         verify(mockGit).getModifiedFilesNames(baseCommit, lastLocalCommit);
     }
 
@@ -122,20 +141,268 @@ public class BranchComparatorTest {
                                                                                                      List<String> localModified) throws Exception {
 
         when(mockGit.getCommitHistory(localBranch)).thenReturn(localHistory);
-        when(mockGitHub.getCommitHistory(remoteBranch)).thenReturn(remoteHistory);
+        when(mockGitHub.getCommitHistory(remoteBranch, DEADLINE)).thenReturn(remoteHistory);
 
         when(mockGit.getModifiedFilesNames(baseCommit, lastLocalCommit)).thenReturn(localModified);
-        when(mockGitHub.getModifiedFilesNames(baseCommit, lastRemoteCommit)).thenThrow(new GitHubApiException("GitHub error"));
+        when(mockGitHub.getModifiedFilesNames(baseCommit, lastRemoteCommit, DEADLINE)).thenThrow(new GitHubApiException("GitHub error"));
 
         assertThrows(GitHubApiException.class, () -> comparator.compareModifiedFiles(localBranch, remoteBranch));
 
         verify(mockGit).getCommitHistory(localBranch);
-        verify(mockGitHub).getCommitHistory(remoteBranch);
+        verify(mockGitHub).getCommitHistory(remoteBranch, DEADLINE);
         verify(mockGit).getModifiedFilesNames(baseCommit, lastLocalCommit);
-        verify(mockGitHub).getModifiedFilesNames(baseCommit, lastRemoteCommit);
+        verify(mockGitHub).getModifiedFilesNames(baseCommit, lastRemoteCommit, DEADLINE);
     }
 
+    @Test
+    @DisplayName("Test compare() - Hybrid plan - Pages only commits newer than the tracking ref")
+    void testCompare_HybridPlan_CombinesLocalAndRemoteHistory() throws Exception {
+        SourcePlanner mockPlanner = mock(SourcePlanner.class);
+        BranchComparator plannedComparator = new BranchComparator(mockGit, mockGitHub, mockPlanner);
+        SourcePlan plan = new SourcePlan(SourcePlan.Strategy.HYBRID, "r1", "r2", 2, 1);
+
+        when(mockPlanner.plan("main", DEADLINE)).thenReturn(plan);
+        when(mockGit.getCommitHistory("feature")).thenReturn(List.of("c3", "c2", "c1"));
+        when(mockGitHub.getCommitHistory("r1", "r2", DEADLINE)).thenReturn(List.of("r1", "r2"));
+        when(mockGit.getCommitHistory("r2")).thenReturn(List.of("r2", "c1"));
+        when(mockGit.getModifiedFilesNames("c1", "c3")).thenReturn(List.of("fileA", "fileB"));
+        when(mockGitHub.getModifiedFilesNames("c1", "r1", DEADLINE)).thenReturn(List.of("fileB", "fileC"));
+
+        ComparisonResult result = plannedComparator.compare("feature", "main");
+
+        assertEquals(List.of("fileB"), result.modifiedFiles());
+        assertSame(plan, result.plan());
+        verify(mockGitHub, never()).getCommitHistory("main", DEADLINE);
+        verify(mockGitHub, never()).getCommitHistory("r1", DEADLINE);
+    }
+
+    @Test
+    @DisplayName("Test compare() - Local plan - No GitHub history or compare requests")
+    void testCompare_LocalPlan_UsesGitOnly() throws Exception {
+        SourcePlanner mockPlanner = mock(SourcePlanner.class);
+        BranchComparator plannedComparator = new BranchComparator(mockGit, mockGitHub, mockPlanner);
+
+        when(mockPlanner.plan("main", DEADLINE)).thenReturn(new SourcePlan(SourcePlan.Strategy.LOCAL, "r1", "r1", 0, 2));
+        when(mockGit.getCommitHistory("feature")).thenReturn(List.of("c2", "c1"));
+        when(mockGit.getCommitHistory("r1")).thenReturn(List.of("r1", "c1"));
+        when(mockGit.getModifiedFilesNames("c1", "c2")).thenReturn(List.of("fileA"));
+        when(mockGit.getModifiedFilesNames("c1", "r1")).thenReturn(List.of("fileA"));
+
+        assertEquals(List.of("fileA"), plannedComparator.compareModifiedFiles("feature", "main"));
+        verify(mockGitHub).newDeadline();
+        verifyNoMoreInteractions(mockGitHub);
+    }
+
+    @Test
+    @DisplayName("Test findConflictingFiles() - Only files with overlapping hunks are reported")
+    void testFindConflictingFiles_OverlappingHunks() throws Exception {
+        when(mockGit.getCommitHistory("feature")).thenReturn(List.of("c3", "c2", "c1"));
+        when(mockGitHub.getCommitHistory("main", DEADLINE)).thenReturn(List.of("r1", "r2", "c1"));
+        when(mockGit.getModifiedFilesNames("c1", "c3")).thenReturn(List.of("fileA", "fileB", "fileC"));
+        when(mockGitHub.getChangedLineRanges("c1", "r1", Set.of("fileA", "fileB", "fileC"), DEADLINE)).thenReturn(Map.of(
+                "fileA", List.of(new LineRange(10, 2)),
+                "fileB", List.of(new LineRange(40, 1))));
+        when(mockGit.getChangedLineRanges(eq("c1"), eq("c3"), any())).thenReturn(Map.of(
+                "fileA", List.of(new LineRange(11, 1)),
+                "fileB", List.of(new LineRange(1, 3), new LineRange(60, 0))));
+
+        List<String> conflicting = comparator.findConflictingFiles("feature", "main");
+
+        assertEquals(List.of("fileA"), conflicting);
+        verify(mockGitHub, never()).getModifiedFilesNames(anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Test findConflictingFiles() - No common files - Local hunks never fetched")
+    void testFindConflictingFiles_NoCommonFiles_SkipsLocalHunks() throws Exception {
+        when(mockGit.getCommitHistory("feature")).thenReturn(List.of("c2", "c1"));
+        when(mockGitHub.getCommitHistory("main", DEADLINE)).thenReturn(List.of("r1", "c1"));
+        when(mockGit.getModifiedFilesNames("c1", "c2")).thenReturn(List.of("fileA"));
+        when(mockGitHub.getChangedLineRanges(eq("c1"), eq("r1"), any(), anyLong())).thenReturn(Map.of());
+
+        assertEquals(List.of(), comparator.findConflictingFiles("feature", "main"));
+        verify(mockGit, never()).getChangedLineRanges(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Test findCommonTouchedPaths() - Paths ruled out by filters - No diff is run")
+    void testFindCommonTouchedPaths_FiltersExcludeAll_NoDiff() throws Exception {
+        ChangedPathIndex mockIndex = mock(ChangedPathIndex.class);
+        List<String> paths = List.of("fileA", "fileB");
+
+        when(mockGit.getCommitHistory("feature")).thenReturn(List.of("c3", "c2", "c1"));
+        when(mockGitHub.getCommitHistory("main", DEADLINE)).thenReturn(List.of("r1", "c1"));
+        when(mockGit.getCommitHistory("c1..c3")).thenReturn(List.of("c3", "c2"));
+        when(mockGitHub.getComparedCommits("c1", "r1", DEADLINE)).thenReturn(Optional.of(List.of("r1")));
+        when(mockIndex.mightBeTouchedLocally("c1", "c3", List.of("c3", "c2"), paths)).thenReturn(Set.of("fileA"));
+        when(mockIndex.mightBeTouchedRemotely(List.of("r1"), Set.of("fileA"), DEADLINE)).thenReturn(Set.of());
+
+        assertTrue(comparator.findCommonTouchedPaths("feature", "main", paths, mockIndex).isEmpty());
+        verify(mockGit, never()).getModifiedFilesNames(any(), any(), anyCollection());
+        verify(mockGitHub, never()).getModifiedFilesNames(anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Test findCommonTouchedPaths() - Remaining candidates confirmed by diff")
+    void testFindCommonTouchedPaths_CandidatesConfirmed() throws Exception {
+        ChangedPathIndex mockIndex = mock(ChangedPathIndex.class);
+        List<String> paths = List.of("fileA", "fileB");
+
+        when(mockGit.getCommitHistory("feature")).thenReturn(List.of("c2", "c1"));
+        when(mockGitHub.getCommitHistory("main", DEADLINE)).thenReturn(List.of("r1", "c1"));
+        when(mockGit.getCommitHistory("c1..c2")).thenReturn(List.of("c2"));
+        when(mockGitHub.getComparedCommits("c1", "r1", DEADLINE)).thenReturn(Optional.of(List.of("r1")));
+        when(mockIndex.mightBeTouchedLocally("c1", "c2", List.of("c2"), paths)).thenReturn(Set.of("fileA"));
+        when(mockIndex.mightBeTouchedRemotely(List.of("r1"), Set.of("fileA"), DEADLINE)).thenReturn(Set.of("fileA"));
+        when(mockGit.getModifiedFilesNames("c1", "c2", Set.of("fileA"))).thenReturn(List.of("fileA"));
+        when(mockGitHub.getModifiedFilesNames("c1", "r1", DEADLINE)).thenReturn(List.of("fileA", "fileC"));
+
+        assertEquals(List.of("fileA"), comparator.findCommonTouchedPaths("feature", "main", paths, mockIndex));
+    }
+
+    @Test
+    @DisplayName("Test findCommonTouchedPaths() - Truncated compare commit list - Remote filters skipped")
+    void testFindCommonTouchedPaths_TruncatedCompare_SkipsRemoteFilters() throws Exception {
+        ChangedPathIndex mockIndex = mock(ChangedPathIndex.class);
+        List<String> paths = List.of("fileA");
+
+        when(mockGit.getCommitHistory("feature")).thenReturn(List.of("c2", "c1"));
+        when(mockGitHub.getCommitHistory("main", DEADLINE)).thenReturn(List.of("r1", "c1"));
+        when(mockGit.getCommitHistory("c1..c2")).thenReturn(List.of("c2"));
+        when(mockGitHub.getComparedCommits("c1", "r1", DEADLINE)).thenReturn(Optional.empty());
+        when(mockIndex.mightBeTouchedLocally("c1", "c2", List.of("c2"), paths)).thenReturn(Set.of("fileA"));
+        when(mockGit.getModifiedFilesNames("c1", "c2", Set.of("fileA"))).thenReturn(List.of("fileA"));
+        when(mockGitHub.getModifiedFilesNames("c1", "r1", DEADLINE)).thenReturn(List.of("fileA"));
+
+        assertEquals(List.of("fileA"), comparator.findCommonTouchedPaths("feature", "main", paths, mockIndex));
+        verify(mockIndex, never()).mightBeTouchedRemotely(any(), any(), anyLong());
+    }
 
+    @Test
+    @DisplayName("Test findCommonTouchedPaths() - Commit older than the base in base..head - Still found")
+    void testFindCommonTouchedPaths_MergedBranchOlderThanBase_Found(@TempDir Path dir) throws Exception {
+        // main: root <- base. feature: root <- hotfix (dated before base) <- merge of main; the remote main merges
+        // hotfix too. Date-ordered, hotfix comes after the base on both sides, yet it is in base..head of each, and the
+        // feature merge commit changed only base.txt relative to its first parent.
+        Path repo = dir.resolve("repo");
+        FixtureRepository.git(dir, "init", "-q", "-b", "main", repo.toString());
+        String stream = commit("main", 1, 1000, "root", null, null, "README.md")
+                + commit("main", 2, 3000, "base", ":1", null, "base.txt")
+                + commit("feature", 3, 2000, "hotfix", ":1", null, "hotfix.txt")
+                + commit("feature", 4, 5000, "merge main", ":3", ":2", "base.txt");
+        Process importer = new ProcessBuilder("git", "fast-import", "--quiet").directory(repo.toFile()).start();
+        try (var stdin = importer.getOutputStream()) {
+            stdin.write(stream.getBytes(StandardCharsets.US_ASCII));
+        }
+        assertEquals(0, importer.waitFor());
+
+        GitCommandExecutor git = new GitCommandExecutor(repo.toString(), new CommandUtils());
+        String root = git.getHeadCommit("main~1");
+        String base = git.getHeadCommit("main");
+        String hotfix = git.getHeadCommit("feature~1");
+        List<String> localHistory = git.getCommitHistory("feature");
+        assertTrue(localHistory.indexOf(hotfix) > localHistory.indexOf(base), "fixture must list hotfix after base");
+
+        String remoteHead = "0123456789abcdef0123456789abcdef01234567";
+        when(mockGitHub.getCommitHistory("main", DEADLINE)).thenReturn(List.of(remoteHead, base, hotfix, root));
+        when(mockGitHub.getComparedCommits(base, remoteHead, DEADLINE)).thenReturn(Optional.of(List.of(remoteHead, hotfix)));
+        when(mockGitHub.getCommitFiles(remoteHead, DEADLINE)).thenReturn(List.of("hotfix.txt"));
+        when(mockGitHub.getCommitFiles(hotfix, DEADLINE)).thenReturn(List.of("hotfix.txt"));
+        when(mockGitHub.getModifiedFilesNames(base, remoteHead, DEADLINE)).thenReturn(List.of("hotfix.txt"));
+
+        BranchComparator realComparator = new BranchComparator(git, mockGitHub);
+        ChangedPathIndex index = new ChangedPathIndex(git, mockGitHub, null);
+
+        assertEquals(List.of("hotfix.txt"),
+                realComparator.findCommonTouchedPaths("feature", "main", List.of("hotfix.txt", "README.md"), index));
+    }
+
+    private static String commit(String branch, int mark, long time, String message, String from, String merge,
+                                 String path) {
+        StringBuilder command = new StringBuilder()
+                .append("commit refs/heads/").append(branch).append('\n')
+                .append("mark :").append(mark).append('\n')
+                .append("committer Test <test@example.com> ").append(time).append(" +0000\n")
+                .append("data ").append(message.length()).append('\n').append(message).append('\n');
+        if (from != null) command.append("from ").append(from).append('\n');
+        if (merge != null) command.append("merge ").append(merge).append('\n');
+        if (path != null) {
+            command.append("M 100644 inline ").append(path).append('\n')
+                    .append("data ").append(path.length() + 1).append('\n').append(path).append("\n\n");
+        }
+        return command.append('\n').toString();
+    }
+
+    @Test
+    @DisplayName("Test compareModifiedFiles() - Single include - Histories and diffs filtered on both sides")
+    void testCompareModifiedFiles_SingleInclude_PushedDown() throws Exception {
+        PathFilter filter = PathFilter.including("src");
+        when(mockGit.getCommitHistory("feature", filter)).thenReturn(List.of("c5", "c2", "c1"));
+        when(mockGitHub.getCommitHistory("main", filter, DEADLINE)).thenReturn(List.of("r4", "c2", "c1"));
+        when(mockGit.getModifiedFilesNames("c2", "c5", filter)).thenReturn(List.of("src/A.java", "src/B.java"));
+        when(mockGitHub.getModifiedFilesNames("c2", "r4", filter, DEADLINE)).thenReturn(List.of("src/B.java"));
+
+        assertEquals(List.of("src/B.java"), comparator.compareModifiedFiles("feature", "main", filter));
+        verify(mockGit, never()).getCommitHistory("feature");
+        verify(mockGitHub, never()).getCommitHistory("main", DEADLINE);
+    }
+
+    @Test
+    @DisplayName("Test compareModifiedFiles() - Path never changed in common history - Base from full histories")
+    void testCompareModifiedFiles_NoCommonFilteredCommit_FallsBackToFullHistory() throws Exception {
+        PathFilter filter = PathFilter.including("new");
+        when(mockGit.getCommitHistory("feature", filter)).thenReturn(List.of("c5"));
+        when(mockGitHub.getCommitHistory("main", filter, DEADLINE)).thenReturn(List.of("r4"));
+        when(mockGit.getCommitHistory("feature")).thenReturn(List.of("c5", "c2", "c1"));
+        when(mockGitHub.getCommitHistory("main", DEADLINE)).thenReturn(List.of("r4", "c2", "c1"));
+        when(mockGit.getModifiedFilesNames("c2", "c5", filter)).thenReturn(List.of("new/A.java"));
+        when(mockGitHub.getModifiedFilesNames("c2", "r4", filter, DEADLINE)).thenReturn(List.of("new/A.java"));
+
+        assertEquals(List.of("new/A.java"), comparator.compareModifiedFiles("feature", "main", filter));
+    }
+
+    @Test
+    @DisplayName("Test compareModifiedFiles() - Path never changed locally - No remote request")
+    void testCompareModifiedFiles_PathUntouchedLocally_NoRemoteWork() throws Exception {
+        PathFilter filter = PathFilter.including("docs");
+        when(mockGit.getCommitHistory("feature", filter)).thenReturn(List.of());
+
+        assertTrue(comparator.compareModifiedFiles("feature", "main", filter).isEmpty());
+        verify(mockGitHub).newDeadline();
+        verifyNoMoreInteractions(mockGitHub);
+    }
 
+    @Test
+    @DisplayName("Test compareModifiedFiles() - Includes and excludes - Full histories, filtered diffs")
+    void testCompareModifiedFiles_IncludesAndExcludes_FiltersDiffs() throws Exception {
+        PathFilter filter = PathFilter.of(List.of("src"), List.of("src/gen"));
+        when(mockGit.getCommitHistory("feature")).thenReturn(List.of("c5", "c2", "c1"));
+        when(mockGitHub.getCommitHistory("main", DEADLINE)).thenReturn(List.of("r4", "c2", "c1"));
+        when(mockGit.getModifiedFilesNames("c2", "c5", filter)).thenReturn(List.of());
+
+        assertTrue(comparator.compareModifiedFiles("feature", "main", filter).isEmpty());
+        verify(mockGitHub, never()).getCommitHistory(anyString(), any(PathFilter.class), anyLong());
+        verify(mockGitHub, never()).getModifiedFilesNames(anyString(), anyString(), any(PathFilter.class), anyLong());
+    }
 
+    @Test
+    @DisplayName("Test compareModifiedFiles() - Calls each within the budget, together beyond it - Comparison fails")
+    void testCompareModifiedFiles_BudgetSharedAcrossCalls(@TempDir Path tempDir) throws Exception {
+        FixtureRepository fixture = FixtureRepository.create(tempDir, 5, 3, 10);
+        GitHubApiSimulator.Settings settings =
+                new GitHubApiSimulator.Settings(30, 10, 10, Duration.ofMillis(300), Duration.ZERO, 0.0, 0);
+        ResiliencePolicy policy = new ResiliencePolicy(0, Duration.ZERO, Duration.ZERO, false, Duration.ZERO,
+                Duration.ofSeconds(10), Duration.ofMillis(800), 0, Duration.ZERO);
+
+        try (GitHubApiSimulator simulator = new GitHubApiSimulator(settings)) {
+            // Two history pages take at least 600 ms and the compare 300 ms: each call fits the budget, both together do not.
+            simulator.addBranch("main", fixture.mainHistory(), 40);
+            GitHubApiClient github = new GitHubApiClient(HttpClient.newHttpClient(), "repo", "owner", "token", policy, simulator.getApiUrl());
+            github.getHeadCommit("main");
+            BranchComparator live = new BranchComparator(new GitCommandExecutor(tempDir.toString(), new CommandUtils()), github);
+
+            GitHubApiException exception = assertThrows(GitHubApiException.class, () -> live.compareModifiedFiles("feature", "main"));
+            assertTrue(exception.getMessage().contains("budget") || exception.getMessage().contains("timed out"), exception.getMessage());
+        }
+    }
 }
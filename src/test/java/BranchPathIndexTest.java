@@ -0,0 +1,137 @@
+import org.example.BranchPathIndex;
+import org.example.GitCommandExecutor;
+import org.example.exceptions.GitCommandException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class BranchPathIndexTest {
+    private static final String PREFIX = "refs/remotes/origin/";
+
+    @Mock
+    private GitCommandExecutor mockGit;
+
+    private BranchPathIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        index = new BranchPathIndex(mockGit, "origin/main", PREFIX);
+        when(mockGit.getHeadCommit("origin/main")).thenReturn("m1");
+        when(mockGit.findMergeBase(eq("m1"), anyString())).thenReturn(Optional.of("m0"));
+    }
+
+    @Test
+    @DisplayName("Test refresh() - Initial build - Branches found by modified path")
+    void testRefresh_InitialBuild_FindsBranchesByPath() throws Exception {
+        when(mockGit.getBranchHeads(PREFIX)).thenReturn(Map.of("origin/main", "m1", "origin/a", "a1", "origin/b", "b1"));
+        when(mockGit.getModifiedFilesNames("m0", "a1")).thenReturn(List.of("src/X.java", "pom.xml"));
+        when(mockGit.getModifiedFilesNames("m0", "b1")).thenReturn(List.of("src/Y.java", "pom.xml"));
+
+        assertEquals(Set.of("origin/a", "origin/b"), index.refresh());
+
+        assertEquals(List.of("origin/a", "origin/b"), List.copyOf(index.findBranchesTouching(List.of("pom.xml"))));
+        assertEquals(List.of("origin/b"), List.copyOf(index.findBranchesTouching(List.of("src/Y.java", "README.md"))));
+        assertTrue(index.findBranchesTouching(List.of("README.md")).isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    @DisplayName("Test refresh() - Only moved and deleted branches are re-indexed")
+    void testRefresh_Incremental_OnlyMovedBranchesDiffed() throws Exception {
+        when(mockGit.getBranchHeads(PREFIX)).thenReturn(Map.of("origin/a", "a1", "origin/b", "b1", "origin/c", "c1"));
+        when(mockGit.getModifiedFilesNames("m0", "a1")).thenReturn(List.of("fileA"));
+        when(mockGit.getModifiedFilesNames("m0", "b1")).thenReturn(List.of("fileB"));
+        when(mockGit.getModifiedFilesNames("m0", "c1")).thenReturn(List.of("fileC"));
+        index.refresh();
+
+        when(mockGit.getBranchHeads(PREFIX)).thenReturn(Map.of("origin/a", "a2", "origin/b", "b1"));
+        when(mockGit.getModifiedFilesNames("m0", "a2")).thenReturn(List.of("fileB"));
+
+        assertEquals(Set.of("origin/a", "origin/c"), index.refresh());
+
+        assertEquals(List.of("origin/a", "origin/b"), List.copyOf(index.findBranchesTouching(List.of("fileB"))));
+        assertTrue(index.findBranchesTouching(List.of("fileA", "fileC")).isEmpty());
+        verify(mockGit, times(1)).getModifiedFilesNames("m0", "b1");
+    }
+
+    @Test
+    @DisplayName("Test refresh() - Main picks up commits of a branch - Only that branch re-indexed")
+    void testRefresh_MainAdvanced_ReindexesBranchesContainingNewCommits() throws Exception {
+        when(mockGit.getBranchHeads(PREFIX)).thenReturn(Map.of("origin/a", "a2", "origin/b", "b1"));
+        when(mockGit.getModifiedFilesNames("m0", "a2")).thenReturn(List.of("fileA1", "fileA2"));
+        when(mockGit.getModifiedFilesNames("m0", "b1")).thenReturn(List.of("fileB"));
+        index.refresh();
+
+        when(mockGit.getHeadCommit("origin/main")).thenReturn("m2");
+        when(mockGit.isAncestor("m1", "m2")).thenReturn(true);
+        when(mockGit.getCommitHistory("m1..m2")).thenReturn(List.of("m2", "a1"));
+        when(mockGit.findBranchesContaining(PREFIX, List.of("m2", "a1"))).thenReturn(Set.of("origin/main", "origin/a"));
+        when(mockGit.findMergeBase("m2", "a2")).thenReturn(Optional.of("a1"));
+        when(mockGit.getModifiedFilesNames("a1", "a2")).thenReturn(List.of("fileA2"));
+
+        assertEquals(Set.of("origin/a"), index.refresh());
+
+        assertTrue(index.findBranchesTouching(List.of("fileA1")).isEmpty());
+        assertEquals(Set.of("fileA2"), index.getModifiedFiles("origin/a"));
+        verify(mockGit, never()).findMergeBase("m2", "b1");
+    }
+
+    @Test
+    @DisplayName("Test refresh() - Diff fails after main advanced - Next refresh re-indexes the same branches")
+    void testRefresh_FailureThenSuccess_RetriesPendingBranches() throws Exception {
+        when(mockGit.getBranchHeads(PREFIX)).thenReturn(Map.of("origin/a", "a2", "origin/b", "b1"));
+        when(mockGit.getModifiedFilesNames("m0", "a2")).thenReturn(List.of("fileA1", "fileA2"));
+        when(mockGit.getModifiedFilesNames("m0", "b1")).thenReturn(List.of("fileB"));
+        index.refresh();
+
+        when(mockGit.getHeadCommit("origin/main")).thenReturn("m2");
+        when(mockGit.isAncestor("m1", "m2")).thenReturn(true);
+        when(mockGit.getCommitHistory("m1..m2")).thenReturn(List.of("m2", "a1"));
+        when(mockGit.findBranchesContaining(PREFIX, List.of("m2", "a1"))).thenReturn(Set.of("origin/a"));
+        when(mockGit.getBranchHeads(PREFIX)).thenReturn(Map.of("origin/a", "a2", "origin/c", "c1"));
+        when(mockGit.findMergeBase("m2", "a2")).thenReturn(Optional.of("a1"));
+        when(mockGit.findMergeBase("m2", "c1")).thenReturn(Optional.of("m2"));
+        when(mockGit.getModifiedFilesNames("a1", "a2"))
+                .thenThrow(new GitCommandException("diff failed"))
+                .thenReturn(List.of("fileA2"));
+        when(mockGit.getModifiedFilesNames("m2", "c1")).thenReturn(List.of("fileC"));
+
+        assertThrows(GitCommandException.class, () -> index.refresh());
+        assertEquals(Set.of("fileA1", "fileA2"), index.getModifiedFiles("origin/a"));
+        assertEquals(List.of("origin/b"), List.copyOf(index.findBranchesTouching(List.of("fileB"))));
+        assertTrue(index.findBranchesTouching(List.of("fileC")).isEmpty());
+
+        assertEquals(Set.of("origin/a", "origin/b", "origin/c"), index.refresh());
+        assertEquals(Set.of("fileA2"), index.getModifiedFiles("origin/a"));
+        assertTrue(index.findBranchesTouching(List.of("fileA1", "fileB")).isEmpty());
+        assertEquals(List.of("origin/c"), List.copyOf(index.findBranchesTouching(List.of("fileC"))));
+    }
+
+    @Test
+    @DisplayName("Test findBranchesTouching() - Thousands of branches - Ids reused after removal")
+    void testFindBranchesTouching_ManyBranches() {
+        IntStream.range(0, 3000).forEach(i -> index.index("b" + i, "h" + i, List.of("common", "only/" + i)));
+        index.remove("b42");
+        index.index("late", "h", List.of("common"));
+
+        Set<String> touching = index.findBranchesTouching(List.of("common"));
+
+        assertEquals(3000, touching.size());
+        assertFalse(touching.contains("b42"));
+        assertTrue(touching.contains("late"));
+        assertEquals(Set.of("b7"), index.findBranchesTouching(List.of("only/7")));
+        assertTrue(index.postingsSizeInBytes() < 3000 * 2 + 3001 * 2);
+        verifyNoInteractions(mockGit);
+    }
+}
@@ -0,0 +1,270 @@
+import org.example.BranchWatcher;
+import org.example.CommandUtils;
+import org.example.GitCommandExecutor;
+import org.example.GitHubApiClient;
+import org.example.OverlapChange;
+import org.example.ResiliencePolicy;
+import org.example.exceptions.GitHubApiException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class BranchWatcherTest {
+    /**
+     * Every compare reports the whole pool of ten files, so the overlap is exactly the local modified files.
+     */
+    private static final GitHubApiSimulator.Settings SIMULATOR_SETTINGS =
+            new GitHubApiSimulator.Settings(30, 10, 10, Duration.ZERO, Duration.ZERO, 0.0, 0);
+
+    @Mock
+    private GitCommandExecutor mockGit;
+
+    @Mock
+    private GitHubApiClient mockGitHub;
+
+    private final List<OverlapChange> changes = new ArrayList<>();
+
+    private BranchWatcher watcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        watcher = new BranchWatcher(mockGit, mockGitHub, "feature", "main", Duration.ofMinutes(1), changes::add);
+
+        when(mockGit.getHeadCommit("feature")).thenReturn("c3");
+        when(mockGitHub.getHeadCommit("main")).thenReturn("r1");
+        when(mockGit.getCommitHistory("c3")).thenReturn(List.of("c3", "c2", "c1"));
+        when(mockGitHub.getCommitHistory("r1")).thenReturn(List.of("r1", "r2", "c1"));
+        when(mockGit.getModifiedFilesNames("c1", "c3")).thenReturn(List.of("fileA", "fileB"));
+        when(mockGitHub.getModifiedFilesNames("c1", "r1")).thenReturn(List.of("fileA", "fileC"));
+    }
+
+    @Test
+    @DisplayName("Test poll() - First poll - Emits initial overlap")
+    void testPoll_FirstPoll_EmitsInitialOverlap() throws Exception {
+        watcher.poll();
+
+        assertEquals(1, changes.size());
+        assertEquals(List.of("fileA"), changes.getFirst().overlap());
+        assertEquals(List.of("fileA"), changes.getFirst().added());
+        assertEquals(List.of("fileA"), watcher.getOverlap());
+    }
+
+    @Test
+    @DisplayName("Test poll() - Heads unchanged - No diffs and no event")
+    void testPoll_HeadsUnchanged_DoesNothing() throws Exception {
+        watcher.poll();
+        watcher.poll();
+
+        assertEquals(1, changes.size());
+        verify(mockGit, times(1)).getModifiedFilesNames(any(), any());
+        verify(mockGitHub, times(1)).getModifiedFilesNames(any(), any());
+        verify(mockGitHub, times(1)).getCommitHistory(any());
+    }
+
+    @Test
+    @DisplayName("Test poll() - Local head advanced - Fetches only new commits and re-diffs local side")
+    void testPoll_LocalHeadAdvanced_UpdatesIncrementally() throws Exception {
+        watcher.poll();
+
+        when(mockGit.getHeadCommit("feature")).thenReturn("c4");
+        when(mockGit.isAncestor("c3", "c4")).thenReturn(true);
+        when(mockGit.getCommitHistory("c3..c4")).thenReturn(List.of("c4"));
+        when(mockGit.getModifiedFilesNames("c1", "c4")).thenReturn(List.of("fileA", "fileB", "fileC"));
+
+        watcher.poll();
+
+        assertEquals(2, changes.size());
+        OverlapChange change = changes.getLast();
+        assertEquals(List.of("fileC"), change.added());
+        assertEquals(List.of(), change.removed());
+        assertEquals(List.of("fileA", "fileC"), change.overlap());
+
+        verify(mockGit, never()).getCommitHistory("c4");
+        verify(mockGitHub, times(1)).getModifiedFilesNames(any(), any());
+    }
+
+    @Test
+    @DisplayName("Test poll() - Remote head advanced - Fetches history only up to the known head")
+    void testPoll_RemoteHeadAdvanced_UpdatesIncrementally() throws Exception {
+        watcher.poll();
+
+        when(mockGitHub.getHeadCommit("main")).thenReturn("r0");
+        when(mockGitHub.getCommitHistory("r0", "r1")).thenReturn(List.of("r0", "r1"));
+        when(mockGitHub.getModifiedFilesNames("c1", "r0")).thenReturn(List.of("fileC"));
+
+        watcher.poll();
+
+        OverlapChange change = changes.getLast();
+        assertEquals(List.of(), change.added());
+        assertEquals(List.of("fileA"), change.removed());
+        assertEquals(List.of(), change.overlap());
+
+        verify(mockGitHub, never()).getCommitHistory("r0");
+        verify(mockGit, times(1)).getModifiedFilesNames(any(), any());
+    }
+
+    @Test
+    @DisplayName("Test poll() - Local branch rewritten - Reloads full local history")
+    void testPoll_LocalHeadRewritten_ReloadsHistory() throws Exception {
+        watcher.poll();
+
+        when(mockGit.getHeadCommit("feature")).thenReturn("x1");
+        when(mockGit.isAncestor("c3", "x1")).thenReturn(false);
+        when(mockGit.getCommitHistory("x1")).thenReturn(List.of("x1", "c1"));
+        when(mockGit.getModifiedFilesNames("c1", "x1")).thenReturn(List.of("fileA"));
+
+        watcher.poll();
+
+        verify(mockGit).getCommitHistory("x1");
+        verify(mockGit, never()).getCommitHistory("c3..x1");
+        assertEquals(List.of("fileA"), watcher.getOverlap());
+    }
+
+    @Test
+    @DisplayName("Test poll() - Remote compare fails once - Next poll reports the correct overlap")
+    void testPoll_RemoteCompareFailsOnce_NextPollRecovers() throws Exception {
+        watcher.poll();
+
+        when(mockGitHub.getHeadCommit("main")).thenReturn("r0");
+        when(mockGitHub.getCommitHistory("r0", "r1")).thenReturn(List.of("r0", "r1"));
+        when(mockGitHub.getModifiedFilesNames("c1", "r0"))
+                .thenThrow(new GitHubApiException("502 Bad Gateway"))
+                .thenReturn(List.of("fileC"));
+
+        assertThrows(GitHubApiException.class, () -> watcher.poll());
+        assertEquals(List.of("fileA"), watcher.getOverlap());
+        assertEquals(1, changes.size());
+
+        watcher.poll();
+
+        assertEquals(List.of(), watcher.getOverlap());
+        assertEquals(List.of("fileA"), changes.getLast().removed());
+        assertEquals("r0", changes.getLast().remoteHead());
+    }
+
+    @Test
+    @DisplayName("Test BranchWatcher() - Interval below one millisecond - IllegalArgumentException")
+    void testConstructor_InvalidInterval_Throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BranchWatcher(mockGit, mockGitHub, "feature", "main", Duration.ZERO, changes::add));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BranchWatcher(mockGit, mockGitHub, "feature", "main", Duration.ofSeconds(-1), changes::add));
+    }
+
+    @Test
+    @DisplayName("Test start() - Local repository and simulated GitHub - Local commit is picked up through the refs watch")
+    void testStart_LocalCommit_UpdatesThroughRefsWatch(@TempDir Path tempDir) throws Exception {
+        FixtureRepository fixture = FixtureRepository.create(tempDir, 5, 3, 10);
+
+        try (GitHubApiSimulator simulator = new GitHubApiSimulator(SIMULATOR_SETTINGS)) {
+            simulator.addBranch("main", fixture.mainHistory(), 2);
+            BlockingQueue<OverlapChange> updates = new LinkedBlockingQueue<>();
+
+            // The remote interval is far longer than the test, so only the refs watch can trigger the second poll.
+            try (BranchWatcher live = new BranchWatcher(localGit(tempDir), remoteGitHub(simulator),
+                    "feature", "main", Duration.ofHours(1), updates::add)) {
+                live.start();
+
+                OverlapChange initial = updates.poll(10, TimeUnit.SECONDS);
+                assertNotNull(initial);
+                assertEquals(List.of("src/file0.java", "src/file4.java", "src/file7.java"), initial.overlap());
+
+                String head = fixture.addFeatureCommit("src/file9.java", "feature 3");
+
+                OverlapChange change = updates.poll(10, TimeUnit.SECONDS);
+                assertNotNull(change);
+                assertEquals(head, change.localHead());
+                assertEquals(List.of("src/file9.java"), change.added());
+                assertEquals(List.of("src/file0.java", "src/file4.java", "src/file7.java", "src/file9.java"), live.getOverlap());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test start() - Watching from a linked worktree - Refs watched in the common Git directory")
+    void testStart_LinkedWorktree_WatchesCommonGitDirectory(@TempDir Path tempDir) throws Exception {
+        Path repo = Files.createDirectories(tempDir.resolve("repo"));
+        Path worktree = tempDir.resolve("worktree");
+        FixtureRepository fixture = FixtureRepository.create(repo, 5, 3, 10);
+        FixtureRepository.git(repo, "worktree", "add", "-q", "--detach", worktree.toString(), "main");
+
+        try (GitHubApiSimulator simulator = new GitHubApiSimulator(SIMULATOR_SETTINGS)) {
+            simulator.addBranch("main", fixture.mainHistory(), 2);
+            BlockingQueue<OverlapChange> updates = new LinkedBlockingQueue<>();
+
+            try (BranchWatcher live = new BranchWatcher(localGit(worktree), remoteGitHub(simulator),
+                    "feature", "main", Duration.ofHours(1), updates::add)) {
+                live.start();
+                assertNotNull(updates.poll(10, TimeUnit.SECONDS));
+
+                String head = fixture.addFeatureCommit("src/file9.java", "feature 3");
+
+                OverlapChange change = updates.poll(10, TimeUnit.SECONDS);
+                assertNotNull(change);
+                assertEquals(head, change.localHead());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test poll() - Local repository and simulated GitHub - Both heads advance incrementally")
+    void testPoll_LocalRepositoryAndSimulator_AdvancesIncrementally(@TempDir Path tempDir) throws Exception {
+        FixtureRepository fixture = FixtureRepository.create(tempDir, 5, 3, 10);
+
+        try (GitHubApiSimulator simulator = new GitHubApiSimulator(SIMULATOR_SETTINGS)) {
+            simulator.addBranch("main", fixture.mainHistory(), 40);
+            GitCommandExecutor git = spy(localGit(tempDir));
+            BranchWatcher live = new BranchWatcher(git, remoteGitHub(simulator), "feature", "main", Duration.ofHours(1), changes::add);
+
+            live.poll();
+            String previousHead = git.getHeadCommit("feature");
+            String head = fixture.addFeatureCommit("src/file9.java", "feature 3");
+            live.poll();
+
+            verify(git).isAncestor(previousHead, head);
+            verify(git).getCommitHistory(previousHead + ".." + head);
+            verify(git, times(1)).getCommitHistory(previousHead);
+            assertEquals(List.of("src/file9.java"), changes.getLast().added());
+
+            // Two more remote commits: one page up to the known head instead of the two pages of the full history.
+            simulator.addBranch("main", fixture.mainHistory(), 42);
+            long requestsBefore = simulator.getRequestCount();
+            live.poll();
+
+            assertEquals(3, simulator.getRequestCount() - requestsBefore);
+            assertEquals(2, changes.size());
+            assertEquals(List.of("src/file0.java", "src/file4.java", "src/file7.java", "src/file9.java"), live.getOverlap());
+
+            // The new remote head was recorded, so an unchanged head costs a single request.
+            requestsBefore = simulator.getRequestCount();
+            live.poll();
+            assertEquals(1, simulator.getRequestCount() - requestsBefore);
+        }
+    }
+
+    private static GitCommandExecutor localGit(Path directory) {
+        return new GitCommandExecutor(directory.toString(), new CommandUtils());
+    }
+
+    private static GitHubApiClient remoteGitHub(GitHubApiSimulator simulator) {
+        return new GitHubApiClient(HttpClient.newHttpClient(), "repo", "owner", "token", ResiliencePolicy.none(), simulator.getApiUrl());
+    }
+}
@@ -0,0 +1,278 @@
+import org.example.ChangedPathBloomFilter;
+import org.example.ChangedPathIndex;
+import org.example.CommandUtils;
+import org.example.CommitGraphReader;
+import org.example.GitCommandExecutor;
+import org.example.GitHubApiClient;
+import org.example.exceptions.GitCommandException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class ChangedPathIndexTest {
+    private static final String BASE = "0".repeat(40);
+    private static final String C1 = "1".repeat(40);
+    private static final String C2 = "2".repeat(40);
+
+    /**
+     * Changes touching nested, non-ASCII and space-containing paths, so that real commit-graph filters exercise both
+     * leading directories and the version 1 sign extension of bytes above 0x7f.
+     */
+    private static final List<Map<String, String>> HISTORY = List.of(
+            Map.of("README.md", "1", "src/main/App.java", "1", "src/test/AppTest.java", "1"),
+            Map.of("docs/naïve.md", "1", "日本/読む.txt", "1"),
+            Map.of("src/main/App.java", "2", "a b/c.txt", "1"),
+            Map.of("日本/読む.txt", "2", "README.md", "2"),
+            Map.of("src/test/AppTest.java", "2", "docs/naïve.md", "2", "a b/c.txt", "2"),
+            Map.of("src/main/App.java", "3", "docs/naïve.md", "3"),
+            Map.of("lib/new/Lib.java", "1", "a b/c.txt", "3"));
+
+    @Mock
+    private GitCommandExecutor mockGit;
+
+    @Mock
+    private GitHubApiClient mockGitHub;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        when(mockGit.getGitDirectory()).thenThrow(new GitCommandException("no commit-graph"));
+    }
+
+    @Test
+    @DisplayName("Test mightContain() - Changed paths and their directories match, others do not")
+    void testMightContain_ChangedPathsAndDirectories() {
+        ChangedPathBloomFilter filter = ChangedPathBloomFilter.of(List.of("src/main/App.java", "README.md"));
+
+        assertTrue(filter.mightContain("src/main/App.java"));
+        assertTrue(filter.mightContain("src/main"));
+        assertTrue(filter.mightContain("src"));
+        assertTrue(filter.mightContain("README.md"));
+        assertFalse(filter.mightContain("src/test/AppTest.java"));
+        assertFalse(filter.mightContain("docs/index.md"));
+    }
+
+    @Test
+    @DisplayName("Test of() - More than 512 changed paths - saturated filter")
+    void testOf_TooManyPaths_Saturated() {
+        List<String> paths = IntStream.range(0, 600).mapToObj(i -> "f" + i).toList();
+
+        ChangedPathBloomFilter filter = ChangedPathBloomFilter.of(paths);
+
+        assertArrayEquals(ChangedPathBloomFilter.saturated().toByteArray(), filter.toByteArray());
+        assertTrue(filter.mightContain("anything/at/all"));
+    }
+
+    @Test
+    @DisplayName("Test mightBeTouchedLocally() - Missing filters computed with a single log")
+    void testMightBeTouchedLocally_ComputesMissingFiltersOnce() throws Exception {
+        when(mockGit.getChangedFilesPerCommit(BASE + ".." + C2)).thenReturn(Map.of(
+                C2, List.of("src/a.txt"),
+                C1, List.of("docs/b.md")));
+        ChangedPathIndex index = new ChangedPathIndex(mockGit, mockGitHub, null);
+
+        Set<String> first = index.mightBeTouchedLocally(BASE, C2, List.of(C2, C1), List.of("src/a.txt", "docs/b.md", "lib/c.jar"));
+        Set<String> second = index.mightBeTouchedLocally(BASE, C2, List.of(C2, C1), List.of("lib/c.jar"));
+
+        assertEquals(Set.of("src/a.txt", "docs/b.md"), first);
+        assertTrue(second.isEmpty());
+        verify(mockGit, times(1)).getChangedFilesPerCommit(anyString());
+    }
+
+    @Test
+    @DisplayName("Test mightBeTouchedRemotely() - Few missing filters fetched per commit")
+    void testMightBeTouchedRemotely_FewMissing_FetchesCommitFiles() throws Exception {
+        when(mockGitHub.getCommitFiles(eq(C1), anyLong())).thenReturn(List.of("src/a.txt"));
+        ChangedPathIndex index = new ChangedPathIndex(mockGit, mockGitHub, null);
+
+        Set<String> touched = index.mightBeTouchedRemotely(List.of(C1), List.of("src/a.txt", "src/b.txt"));
+
+        assertEquals(Set.of("src/a.txt"), touched);
+    }
+
+    @Test
+    @DisplayName("Test mightBeTouchedRemotely() - Too many missing filters - all paths without fetching")
+    void testMightBeTouchedRemotely_ManyMissing_ReturnsAllPaths() throws Exception {
+        List<String> commits = IntStream.range(0, 9).mapToObj(i -> String.format("%040x", i + 1)).toList();
+        ChangedPathIndex index = new ChangedPathIndex(mockGit, mockGitHub, null);
+
+        Set<String> touched = index.mightBeTouchedRemotely(commits, List.of("src/a.txt"));
+
+        assertEquals(Set.of("src/a.txt"), touched);
+        verify(mockGitHub, never()).getCommitFiles(anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Test save() - Computed filters reloaded from the cache file")
+    void testSave_ReloadsFilters() throws Exception {
+        Path cache = tempDir.resolve("filters.bin");
+        when(mockGitHub.getCommitFiles(eq(C1), anyLong())).thenReturn(List.of("src/a.txt"));
+        ChangedPathIndex index = new ChangedPathIndex(mockGit, mockGitHub, cache);
+        index.buildRemote(List.of(C1));
+        index.save();
+
+        ChangedPathIndex reloaded = new ChangedPathIndex(mockGit, mockGitHub, cache);
+        Set<String> touched = reloaded.mightBeTouchedRemotely(List.of(C1), List.of("src/a.txt", "src/b.txt"));
+
+        assertEquals(Set.of("src/a.txt"), touched);
+        verify(mockGitHub, times(1)).getCommitFiles(eq(C1), anyLong());
+    }
+    @Test
+    @DisplayName("Test getFilter() - Commit-graph written by Git, single file and split chain - Filters agree with git log")
+    void testGetFilter_RealCommitGraph_AgreesWithGitLog() throws Exception {
+        Path repository = createRepository(5);
+
+        FixtureRepository.git(repository, "commit-graph", "write", "--reachable", "--changed-paths");
+        assertTrue(Files.isRegularFile(repository.resolve(".git/objects/info/commit-graph")));
+        assertFiltersAgreeWithGitLog(repository, 1);
+
+        importHistory(repository, 5, HISTORY.size());
+        FixtureRepository.git(repository, "commit-graph", "write", "--reachable", "--changed-paths", "--split=no-merge");
+
+        Path chain = repository.resolve(".git/objects/info/commit-graphs/commit-graph-chain");
+        assertEquals(2, Files.readAllLines(chain).size());
+        assertFiltersAgreeWithGitLog(repository, 1);
+    }
+
+    @Test
+    @DisplayName("Test getFilter() - Version 2 commit-graph written by Git - Filters agree with git log")
+    void testGetFilter_RealVersion2CommitGraph_AgreesWithGitLog() throws Exception {
+        Path repository = createRepository(HISTORY.size());
+
+        FixtureRepository.git(repository, "-c", "commitGraph.changedPathsVersion=2",
+                "commit-graph", "write", "--reachable", "--changed-paths");
+
+        String head = FixtureRepository.git(repository, "rev-parse", "HEAD");
+        int version = CommitGraphReader.open(repository.resolve(".git")).orElseThrow().getFilter(head).orElseThrow().getVersion();
+        assumeTrue(version == 2, "This Git writes only version 1 changed-path filters");
+        assertFiltersAgreeWithGitLog(repository, 2);
+    }
+
+    @Test
+    @DisplayName("Test mightBeTouchedLocally() - Commit-graph written by Git - No git log needed")
+    void testMightBeTouchedLocally_RealCommitGraph_UsesGraphFilters() throws Exception {
+        Path repository = createRepository(HISTORY.size());
+        FixtureRepository.git(repository, "commit-graph", "write", "--reachable", "--changed-paths");
+        String base = FixtureRepository.git(repository, "rev-list", "--max-parents=0", "HEAD");
+        String head = FixtureRepository.git(repository, "rev-parse", "HEAD");
+        List<String> commits = List.of(FixtureRepository.git(repository, "rev-list", base + ".." + head).split("\n"));
+
+        GitCommandExecutor git = spy(new GitCommandExecutor(repository.toString(), new CommandUtils()));
+        ChangedPathIndex index = new ChangedPathIndex(git, mockGitHub, null);
+        Set<String> touched = index.mightBeTouchedLocally(base, head, commits, List.of("src/main/App.java", "docs", "unrelated/file.txt"));
+
+        assertTrue(touched.containsAll(Set.of("src/main/App.java", "docs")));
+        verify(git, never()).getChangedFilesPerCommit(anyString());
+    }
+
+    /**
+     * Imports the first {@code count} commits of {@link #HISTORY} into a new repository.
+     */
+    private Path createRepository(int count) throws Exception {
+        Path repository = Files.createDirectories(tempDir.resolve("repository"));
+        FixtureRepository.git(repository, "init", "-q", "-b", "main");
+        importHistory(repository, 0, count);
+        return repository;
+    }
+
+    /**
+     * Imports commits {@code from} (inclusive) to {@code to} (exclusive) of {@link #HISTORY} on top of {@code main}.
+     * The history goes through {@code git fast-import} because non-ASCII file names cannot be created under every
+     * platform locale.
+     */
+    private static void importHistory(Path repository, int from, int to) throws Exception {
+        StringBuilder stream = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            stream.append("commit refs/heads/main\n");
+            appendData(stream.append("committer Test <test@example.com> ").append(1_700_000_000 + i).append(" +0000\n"),
+                    "change " + i);
+            if (i == from && i > 0) stream.append("from refs/heads/main^0\n");
+            HISTORY.get(i).forEach((path, content) ->
+                    appendData(stream.append("M 100644 inline ").append(path).append('\n'), content + "\n"));
+            stream.append('\n');
+        }
+
+        Process process = new ProcessBuilder("git", "fast-import", "--quiet")
+                .directory(repository.toFile()).redirectErrorStream(true).start();
+        try (var stdin = process.getOutputStream()) {
+            stdin.write(stream.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertEquals(0, process.waitFor(), output);
+    }
+
+    private static void appendData(StringBuilder stream, String data) {
+        stream.append("data ").append(data.getBytes(StandardCharsets.UTF_8).length).append('\n').append(data).append('\n');
+    }
+
+    /**
+     * Checks every commit of the repository against every changed path and each of its leading directories: each
+     * commit {@code git log -- <path>} lists must match the filter. Paths are passed to Git only when ASCII, because
+     * non-ASCII process arguments depend on the platform locale; the commits of the others come from the
+     * {@code --name-only} log, which the ASCII paths cross-check.
+     */
+    private static void assertFiltersAgreeWithGitLog(Path repository, int version) throws Exception {
+        Map<String, Set<String>> changedFiles = new LinkedHashMap<>();
+        String commit = null;
+        for (String line : FixtureRepository.git(repository, "-c", "core.quotePath=false",
+                "log", "--no-renames", "--format=commit %H", "--name-only").split("\n")) {
+            if (line.startsWith("commit ")) {
+                commit = line.substring("commit ".length());
+                changedFiles.put(commit, new HashSet<>());
+            } else if (!line.isEmpty()) {
+                changedFiles.get(commit).add(line);
+            }
+        }
+
+        Set<String> paths = new TreeSet<>();
+        for (Set<String> files : changedFiles.values()) {
+            for (String file : files) {
+                for (int slash = file.indexOf('/'); slash >= 0; slash = file.indexOf('/', slash + 1)) {
+                    paths.add(file.substring(0, slash));
+                }
+                paths.add(file);
+            }
+        }
+
+        CommitGraphReader reader = CommitGraphReader.open(repository.resolve(".git")).orElseThrow();
+        int negatives = 0;
+        for (String path : paths) {
+            Set<String> expected = new HashSet<>();
+            changedFiles.forEach((sha, files) -> {
+                if (files.stream().anyMatch(file -> file.equals(path) || file.startsWith(path + "/"))) expected.add(sha);
+            });
+            if (StandardCharsets.US_ASCII.newEncoder().canEncode(path)) {
+                String log = FixtureRepository.git(repository, "log", "--format=%H", "--", path);
+                assertEquals(expected, new HashSet<>(List.of(log.split("\n"))), path);
+            }
+
+            for (String sha : changedFiles.keySet()) {
+                ChangedPathBloomFilter filter = reader.getFilter(sha).orElseThrow(() -> new AssertionError("No filter for " + sha));
+                assertEquals(version, filter.getVersion());
+                if (expected.contains(sha)) {
+                    assertTrue(filter.mightContain(path), path + " in " + sha);
+                } else if (!filter.mightContain(path)) {
+                    negatives++;
+                }
+            }
+        }
+        assertTrue(negatives > 0, "Every filter matched every path");
+    }
+}
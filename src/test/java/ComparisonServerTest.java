@@ -0,0 +1,158 @@
+import org.example.BranchComparator;
+import org.example.ComparisonServer;
+import org.example.GitHubApiClient;
+import org.example.exceptions.GitHubApiException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ComparisonServerTest {
+
+    @Mock
+    private BranchComparator mockComparator;
+
+    @Mock
+    private GitHubApiClient mockGitHub;
+
+    private ComparisonServer server;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        when(mockGitHub.getRateLimitRemaining()).thenReturn(-1);
+
+        server = new ComparisonServer(new InetSocketAddress("localhost", 0), 2, Duration.ofSeconds(1), 10);
+        server.register("repo", mockComparator, mockGitHub);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        URI uri = URI.create("http://localhost:" + server.getAddress().getPort() + path);
+        return client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    @DisplayName("Test compare endpoint - Success")
+    void testCompare_Success() throws Exception {
+        when(mockComparator.compareModifiedFiles("feature", "main")).thenReturn(List.of("fileA", "fileB"));
+
+        HttpResponse<String> response = get("/repos/repo/compare?local=feature&remote=main");
+
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"files\":[\"fileA\",\"fileB\"]}", response.body());
+    }
+
+    @Test
+    @DisplayName("Test compare endpoint - Unknown repository and missing parameters")
+    void testCompare_InvalidRequests() throws Exception {
+        assertEquals(404, get("/repos/other/compare?local=feature&remote=main").statusCode());
+        assertEquals(400, get("/repos/repo/compare?local=feature").statusCode());
+        verifyNoInteractions(mockComparator);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"-feature", "--upload-pack=evil", "a..b", "../main", "a//b", "/main", "main/", "a/.hidden",
+            "main.lock", "main.", "a b", "a%00b", "a%0Ab", "a~1", "a^", "a:b", "a?", "a*", "a[", "a%5Cb", "a@{1}", "@"})
+    @DisplayName("Test compare endpoint - Branch name git would reject - 400")
+    void testCompare_InvalidBranchName_BadRequest(String name) throws Exception {
+        String encoded = name.replace(" ", "%20").replace("?", "%3F").replace("[", "%5B").replace("^", "%5E")
+                .replace("{", "%7B").replace("}", "%7D");
+
+        assertEquals(400, get("/repos/repo/compare?local=" + encoded + "&remote=main").statusCode());
+        assertEquals(400, get("/repos/repo/compare?local=feature&remote=" + encoded).statusCode());
+        verifyNoInteractions(mockComparator);
+    }
+
+    @Test
+    @DisplayName("Test compare endpoint - Nested branch name - Accepted")
+    void testCompare_NestedBranchName_Accepted() throws Exception {
+        when(mockComparator.compareModifiedFiles("feature/x-1.2", "release/v1")).thenReturn(List.of());
+
+        assertEquals(200, get("/repos/repo/compare?local=feature/x-1.2&remote=release/v1").statusCode());
+    }
+
+    @Test
+    @DisplayName("Test compare endpoint - GitHub failure - 502")
+    void testCompare_GitHubFailure_BadGateway() throws Exception {
+        when(mockComparator.compareModifiedFiles("feature", "main")).thenThrow(new GitHubApiException("GitHub error"));
+
+        HttpResponse<String> response = get("/repos/repo/compare?local=feature&remote=main");
+
+        assertEquals(502, response.statusCode());
+        assertTrue(response.body().contains("GitHub error"));
+    }
+
+    @Test
+    @DisplayName("Test compare endpoint - Rate limit nearly exhausted - 503 with Retry-After")
+    void testCompare_LowRateLimit_Rejected() throws Exception {
+        when(mockGitHub.getRateLimitRemaining()).thenReturn(3);
+        when(mockGitHub.getRateLimitReset()).thenReturn(System.currentTimeMillis() / 1000 + 60);
+
+        HttpResponse<String> response = get("/repos/repo/compare?local=feature&remote=main");
+
+        assertEquals(503, response.statusCode());
+        assertTrue(response.headers().firstValue("Retry-After").isPresent());
+        verifyNoInteractions(mockComparator);
+    }
+
+    @Test
+    @DisplayName("Test compare endpoint - Identical concurrent requests - Computed once")
+    void testCompare_ConcurrentIdenticalRequests_Coalesced() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(mockComparator.compareModifiedFiles("feature", "main")).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of("fileA");
+        });
+
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        responses.add(CompletableFuture.supplyAsync(() -> sendQuietly("/repos/repo/compare?local=feature&remote=main")));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 4; i++) {
+            responses.add(CompletableFuture.supplyAsync(() -> sendQuietly("/repos/repo/compare?local=feature&remote=main")));
+        }
+        Thread.sleep(200);
+        release.countDown();
+
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals(200, response.get(5, TimeUnit.SECONDS).statusCode());
+        }
+        verify(mockComparator, times(1)).compareModifiedFiles("feature", "main");
+    }
+
+    private HttpResponse<String> sendQuietly(String path) {
+        try {
+            return get(path);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
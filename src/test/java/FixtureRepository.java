@@ -0,0 +1,65 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds a throwaway local Git repository for load tests: a {@code main} history of {@code mainCommits} commits and
+ * a {@code feature} branch of {@code featureCommits} commits on top of it, each modifying one file from the same
+ * {@code src/file{N}.java} pool {@link GitHubApiSimulator} reports in its compares.
+ *
+ * @param directory The working tree of the repository.
+ * @param mainHistory The commits of {@code main}, most recent first.
+ */
+public record FixtureRepository(Path directory, List<String> mainHistory) {
+    private static final Map<String, String> IDENTITY = Map.of(
+            "GIT_AUTHOR_NAME", "Load Test", "GIT_AUTHOR_EMAIL", "load@example.com",
+            "GIT_COMMITTER_NAME", "Load Test", "GIT_COMMITTER_EMAIL", "load@example.com");
+
+    public static FixtureRepository create(Path directory, int mainCommits, int featureCommits, int filePool)
+            throws IOException, InterruptedException {
+        git(directory, "init", "-q", "-b", "main");
+        for (int i = 0; i < mainCommits; i++) commit(directory, "src/file" + (i % filePool) + ".java", "main " + i);
+
+        List<String> mainHistory = Arrays.asList(git(directory, "rev-list", "main").split("\n"));
+
+        git(directory, "checkout", "-q", "-b", "feature");
+        for (int i = 0; i < featureCommits; i++) commit(directory, "src/file" + (i * 7 % filePool) + ".java", "feature " + i);
+
+        return new FixtureRepository(directory, mainHistory);
+    }
+
+    /**
+     * Commits a change to {@code file} on the checked-out {@code feature} branch.
+     *
+     * @return The new head of {@code feature}.
+     */
+    public String addFeatureCommit(String file, String content) throws IOException, InterruptedException {
+        commit(directory, file, content);
+        return git(directory, "rev-parse", "HEAD");
+    }
+
+    private static void commit(Path directory, String file, String content) throws IOException, InterruptedException {
+        Path path = directory.resolve(file);
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, content + "\n", StandardCharsets.UTF_8);
+        git(directory, "add", file);
+        git(directory, "commit", "-q", "-m", content);
+    }
+
+    static String git(Path directory, String... arguments) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of("git", "-c", "commit.gpgsign=false"));
+        command.addAll(List.of(arguments));
+
+        ProcessBuilder builder = new ProcessBuilder(command).directory(directory.toFile()).redirectErrorStream(true);
+        builder.environment().putAll(IDENTITY);
+        Process process = builder.start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+        if (process.waitFor() != 0) throw new IOException("git " + String.join(" ", arguments) + " failed: " + output);
+        return output;
+    }
+}
@@ -1,19 +1,28 @@
 import org.example.CommandUtils;
 import org.example.GitCommandExecutor;
+import org.example.LineRange;
+import org.example.PathFilter;
 import org.example.exceptions.GitCommandException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -50,6 +59,20 @@ public class GitCommandExecutorTest {
         assertEquals("commit3", commitHistory.get(2));
     }
 
+    @Test
+    @DisplayName("Test getCommitHistory() - Path filter - Passed as pathspecs, empty output is empty history")
+    void testGetCommitHistory_PathFilter_Pathspecs() throws Exception {
+        when(mockCommandUtils.executeCommand(any(), anyList())).thenReturn(mockProcess);
+        when(mockCommandUtils.readOutput(any())).thenReturn("");
+        when(mockProcess.waitFor()).thenReturn(0);
+
+        List<String> commitHistory = gitCommandExecutor.getCommitHistory("branchB", PathFilter.of(List.of("src/"), List.of("src/gen")));
+
+        assertTrue(commitHistory.isEmpty());
+        verify(mockCommandUtils).executeCommand(any(), eq(List.of("git", "rev-list", "branchB", "--",
+                ":(literal)src", ":(exclude,literal)src/gen")));
+    }
+
     @Test
     @DisplayName("Test getCommitHistory() - Command failed - GitCommandException")
     void testGetCommitHistory_ThrowsGitCommandException() throws Exception {
@@ -103,6 +126,17 @@ public class GitCommandExecutorTest {
         assertEquals("repo/file3.txt", modifiedFilesNames.get(2));
     }
 
+    @Test
+    @DisplayName("Test getModifiedFilesNames() - Empty diff - Empty list")
+    void testGetModifiedFilesNames_EmptyDiff_EmptyList() throws Exception {
+        when(mockCommandUtils.executeCommand(any(), anyList())).thenReturn(mockProcess);
+        when(mockCommandUtils.readOutput(any())).thenReturn("");
+        when(mockProcess.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[0]));
+        when(mockProcess.waitFor()).thenReturn(0);
+
+        assertEquals(List.of(), gitCommandExecutor.getModifiedFilesNames("commit1", "commit2"));
+    }
+
     @Test
     @DisplayName("Test getModifiedFilesNames() - Command failed - GitCommandException")
     void testGetModifiedFilesNames_ThrowsGitCommandException() throws Exception {
@@ -139,4 +173,100 @@ public class GitCommandExecutorTest {
 
         assertTrue(exception.getMessage().contains("Thread was interrupted"));
     }
+
+    @Test
+    @DisplayName("Test getChangedLineRanges() - Success")
+    void testGetChangedLineRanges_Success() throws Exception {
+        String diff = String.join("\n",
+                "diff --git a/src/App.java b/src/App.java",
+                "index 1111111..2222222 100644",
+                "--- a/src/App.java",
+                "+++ b/src/App.java",
+                "@@ -3 +3 @@ class App {",
+                "--- removed line that looks like a header",
+                "+changed",
+                "@@ -10,0 +11,2 @@",
+                "+added",
+                "+added",
+                "diff --git a/logo.png b/logo.png",
+                "Binary files a/logo.png and b/logo.png differ");
+
+        when(mockCommandUtils.executeCommand(any(), anyList())).thenReturn(mockProcess);
+        when(mockCommandUtils.readOutput(any())).thenReturn("");
+        when(mockProcess.getInputStream()).thenReturn(new ByteArrayInputStream(diff.getBytes()));
+        when(mockProcess.waitFor()).thenReturn(0);
+
+        Map<String, List<LineRange>> ranges = gitCommandExecutor.getChangedLineRanges("commit1", "commit2", List.of("src/App.java", "logo.png"));
+
+        assertEquals(List.of(new LineRange(3, 1), new LineRange(10, 0)), ranges.get("src/App.java"));
+        assertEquals(List.of(), ranges.get("logo.png"));
+    }
+
+    @Test
+    @DisplayName("Test getChangedLineRanges() - Quoted paths - Unquoted and kept apart from their neighbours")
+    void testGetChangedLineRanges_QuotedPaths() throws Exception {
+        String diff = String.join("\n",
+                "diff --git a/plain.txt b/plain.txt",
+                "--- a/plain.txt",
+                "+++ b/plain.txt",
+                "@@ -1 +1 @@",
+                "diff --git \"a/x\\\"y.txt\" \"b/x\\\"y.txt\"",
+                "--- \"a/x\\\"y.txt\"",
+                "+++ \"b/x\\\"y.txt\"",
+                "@@ -5,2 +5,2 @@",
+                "diff --git \"a/back\\\\slash.txt\" \"b/back\\\\slash.txt\"",
+                "@@ -7 +7 @@",
+                "diff --git \"a/tab\\tcaf\\303\\251 x.txt\" \"b/tab\\tcaf\\303\\251 x.txt\"",
+                "@@ -9,0 +10 @@",
+                "diff --git a/with space.txt b/with space.txt",
+                "@@ -2 +2 @@");
+
+        when(mockCommandUtils.executeCommand(any(), anyList())).thenReturn(mockProcess);
+        when(mockCommandUtils.readOutput(any())).thenReturn("");
+        when(mockProcess.getInputStream()).thenReturn(new ByteArrayInputStream(diff.getBytes(StandardCharsets.UTF_8)));
+        when(mockProcess.waitFor()).thenReturn(0);
+
+        Map<String, List<LineRange>> ranges = gitCommandExecutor.getChangedLineRanges("commit1", "commit2",
+                List.of("plain.txt", "x\"y.txt", "back\\slash.txt", "tab\tcaf\u00e9 x.txt", "with space.txt"));
+
+        assertEquals(List.of("plain.txt", "x\"y.txt", "back\\slash.txt", "tab\tcaf\u00e9 x.txt", "with space.txt"),
+                List.copyOf(ranges.keySet()));
+        assertEquals(List.of(new LineRange(1, 1)), ranges.get("plain.txt"));
+        assertEquals(List.of(new LineRange(5, 2)), ranges.get("x\"y.txt"));
+        assertEquals(List.of(new LineRange(7, 1)), ranges.get("back\\slash.txt"));
+        assertEquals(List.of(new LineRange(9, 0)), ranges.get("tab\tcaf\u00e9 x.txt"));
+        assertEquals(List.of(new LineRange(2, 1)), ranges.get("with space.txt"));
+    }
+
+    @Test
+    @DisplayName("Test getChangedLineRanges() - Repository configured with diff.noprefix - Paths still parsed")
+    void testGetChangedLineRanges_NoPrefixConfigured_PathsParsed(@TempDir Path dir) throws Exception {
+        FixtureRepository.git(dir, "init", "-q");
+        FixtureRepository.git(dir, "config", "diff.noprefix", "true");
+        FixtureRepository.git(dir, "config", "diff.mnemonicPrefix", "true");
+        Files.createDirectories(dir.resolve("src"));
+        Files.writeString(dir.resolve("src/App.java"), "one\ntwo\nthree\n");
+        FixtureRepository.git(dir, "add", "-A");
+        FixtureRepository.git(dir, "commit", "-q", "-m", "first");
+        Files.writeString(dir.resolve("src/App.java"), "one\nTWO\nthree\n");
+        FixtureRepository.git(dir, "commit", "-q", "-am", "second");
+
+        GitCommandExecutor git = new GitCommandExecutor(dir.toString(), new CommandUtils());
+        Map<String, List<LineRange>> ranges = git.getChangedLineRanges("HEAD~1", "HEAD", List.of("src/App.java"));
+
+        assertEquals(Map.of("src/App.java", List.of(new LineRange(2, 1))), ranges);
+    }
+
+    @Test
+    @DisplayName("Test getChangedLineRanges() - Command failed - GitCommandException")
+    void testGetChangedLineRanges_ThrowsGitCommandException() throws Exception {
+        when(mockCommandUtils.executeCommand(any(), anyList())).thenReturn(mockProcess);
+        when(mockProcess.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[0]));
+        when(mockProcess.waitFor()).thenReturn(128);
+
+        GitCommandException exception = assertThrows(GitCommandException.class,
+                () -> gitCommandExecutor.getChangedLineRanges("commit1", "commit2", List.of("file.txt")));
+
+        assertTrue(exception.getMessage().contains("Git diff -U0 command failed for commits: commit1 and commit2."));
+    }
 }
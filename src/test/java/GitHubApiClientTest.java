@@ -1,24 +1,42 @@
 import org.example.GitHubApiClient;
+import org.example.HistorySnapshot;
+import org.example.LineRange;
+import org.example.PathFilter;
 import org.example.exceptions.GitHubApiException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.http.HttpClient;
 import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class GitHubApiClientTest {
@@ -223,4 +241,267 @@ public class GitHubApiClientTest {
 
         assertTrue(exception.getMessage().contains("Network error"));
     }
+
+    @Test
+    @DisplayName("Test getCommitHistory() - Known commit on first page - Stops paging")
+    void testGetCommitHistory_KnownCommit_StopsPaging() throws Exception {
+        HttpResponse<String> mockResponse = mock(HttpResponse.class);
+        when(mockResponse.statusCode()).thenReturn(200);
+        when(mockResponse.body()).thenReturn("[{\"sha\": \"commit1\"}, {\"sha\": \"commit2\"}, {\"sha\": \"commit3\"}]");
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put("Link", List.of("<https://api.github.com/repos/owner/repo/commits?sha=main&page=2>; rel=\"next\""));
+        when(mockResponse.headers()).thenReturn(HttpHeaders.of(headers, (k, v) -> true));
+
+        when(mockClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString())))
+                .thenReturn(mockResponse);
+
+        List<String> commitHistory = gitHubApiClient.getCommitHistory("main", "commit2");
+
+        assertEquals(List.of("commit1", "commit2"), commitHistory);
+        verify(mockClient, times(1)).send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()));
+    }
+
+    @Test
+    @DisplayName("Test getHeadCommit() - Not modified - Returns cached SHA")
+    void testGetHeadCommit_NotModified_ReturnsCachedSha() throws Exception {
+        HttpResponse<String> firstResponse = mock(HttpResponse.class);
+        when(firstResponse.statusCode()).thenReturn(200);
+        when(firstResponse.body()).thenReturn("commit1\n");
+        when(firstResponse.headers()).thenReturn(HttpHeaders.of(Map.of("ETag", List.of("\"abc\"")), (k, v) -> true));
+
+        HttpResponse<String> notModified = mock(HttpResponse.class);
+        when(notModified.statusCode()).thenReturn(304);
+
+        when(mockClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString())))
+                .thenReturn(firstResponse)
+                .thenReturn(notModified);
+
+        assertEquals("commit1", gitHubApiClient.getHeadCommit("main"));
+        assertEquals("commit1", gitHubApiClient.getHeadCommit("main"));
+
+        ArgumentCaptor<HttpRequest> requests = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(mockClient, times(2)).send(requests.capture(), eq(HttpResponse.BodyHandlers.ofString()));
+        assertEquals("\"abc\"", requests.getAllValues().get(1).headers().firstValue("If-None-Match").orElse(null));
+    }
+
+    @Test
+    @DisplayName("Test getChangedLineRanges() - Only requested paths are parsed")
+    void testGetChangedLineRanges_FiltersPaths() throws Exception {
+        String body = "{ \"status\": \"ahead\", \"commits\": [ { \"sha\": \"c1\" } ], \"files\": ["
+                + "{ \"filename\": \"file1.txt\", \"status\": \"modified\", \"patch\": \"@@ -1,2 +1,3 @@\\n-a\\n+b\\n@@ -20 +21 @@\\n-c\\n+d\" },"
+                + "{ \"filename\": \"file2.txt\", \"patch\": \"@@ -5 +5 @@\\n-x\\n+y\" },"
+                + "{ \"filename\": \"image.png\", \"status\": \"modified\" } ] }";
+
+        HttpResponse<InputStream> mockResponse = mock(HttpResponse.class);
+        when(mockResponse.statusCode()).thenReturn(200);
+        when(mockResponse.body()).thenReturn(new ByteArrayInputStream(body.getBytes()));
+
+        when(mockClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenReturn(mockResponse);
+
+        Map<String, List<LineRange>> ranges = gitHubApiClient.getChangedLineRanges("commit1", "commit2", Set.of("file1.txt", "image.png", "other.txt"));
+
+        assertEquals(List.of("file1.txt", "image.png"), List.copyOf(ranges.keySet()));
+        assertEquals(List.of(new LineRange(1, 2), new LineRange(20, 1)), ranges.get("file1.txt"));
+        assertEquals(List.of(), ranges.get("image.png"));
+    }
+
+    @Test
+    @DisplayName("Test getModifiedFilesNames() - Path filter - Only matching names kept while parsing")
+    void testGetModifiedFilesNames_PathFilter_StreamsMatchingFiles() throws Exception {
+        String body = "{ \"commits\": [ { \"sha\": \"c1\", \"files\": [ { \"filename\": \"src/in-commit.txt\" } ] } ], \"files\": ["
+                + "{ \"filename\": \"src/main/A.java\", \"patch\": \"@@ -1 +1 @@\\n-a\\n+b\" },"
+                + "{ \"filename\": \"src/main/gen/B.java\" },"
+                + "{ \"filename\": \"docs/C.md\" } ] }";
+
+        HttpResponse<InputStream> mockResponse = mock(HttpResponse.class);
+        when(mockResponse.statusCode()).thenReturn(200);
+        when(mockResponse.body()).thenReturn(new ByteArrayInputStream(body.getBytes()));
+
+        when(mockClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenReturn(mockResponse);
+
+        PathFilter filter = PathFilter.of(List.of("src/main"), List.of("src/main/gen"));
+        List<String> files = gitHubApiClient.getModifiedFilesNames("commit1", "commit2", filter);
+
+        assertEquals(List.of("src/main/A.java"), files);
+    }
+
+    @Test
+    @DisplayName("Test getCommitHistory() - Single include - Sent as path parameter")
+    void testGetCommitHistory_SingleInclude_PathParameter() throws Exception {
+        HttpResponse<String> mockResponse = mock(HttpResponse.class);
+        when(mockResponse.statusCode()).thenReturn(200);
+        when(mockResponse.body()).thenReturn("[ { \"sha\": \"c2\" }, { \"sha\": \"c1\" } ]");
+        when(mockResponse.headers()).thenReturn(HttpHeaders.of(new HashMap<>(), (k, v) -> true));
+
+        when(mockClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenReturn(mockResponse);
+
+        List<String> history = gitHubApiClient.getCommitHistory("main", PathFilter.including("src/main app"));
+
+        ArgumentCaptor<HttpRequest> request = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(mockClient).send(request.capture(), eq(HttpResponse.BodyHandlers.ofString()));
+        assertEquals(List.of("c2", "c1"), history);
+        assertTrue(request.getValue().uri().toString().endsWith("commits?sha=main&page=1&path=src%2Fmain+app"));
+        assertThrows(IllegalArgumentException.class,
+                () -> gitHubApiClient.getCommitHistory("main", PathFilter.including("src", "docs")));
+    }
+
+    @Test
+    @DisplayName("Test getChangedLineRanges() - Unsuccessful response - GitHubApiException")
+    void testGetChangedLineRanges_UnsuccessfulResponse_ThrowsGitHubApiException() throws Exception {
+        HttpResponse<InputStream> mockResponse = mock(HttpResponse.class);
+        when(mockResponse.statusCode()).thenReturn(404);
+        when(mockResponse.body()).thenReturn(new ByteArrayInputStream(new byte[0]));
+
+        when(mockClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenReturn(mockResponse);
+
+        GitHubApiException exception = assertThrows(GitHubApiException.class,
+                () -> gitHubApiClient.getChangedLineRanges("commit1", "commit2", Set.of("file1.txt")));
+
+        assertTrue(exception.getMessage().contains("GitHub compare commits failed: 404"));
+    }
+
+    @Test
+    @DisplayName("Test getModifiedFilesNames() - Concurrent identical calls - Single request")
+    void testGetModifiedFilesNames_ConcurrentCalls_SingleRequest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        HttpResponse<String> mockResponse = mock(HttpResponse.class);
+        when(mockResponse.statusCode()).thenReturn(200);
+        when(mockResponse.body()).thenReturn("{ \"files\": [ { \"filename\": \"file1.txt\" } ] }");
+        when(mockResponse.headers()).thenReturn(HttpHeaders.of(new HashMap<>(), (k, v) -> true));
+
+        when(mockClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return mockResponse;
+        });
+
+        List<Future<List<String>>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 5; i++) {
+                results.add(executor.submit(() -> gitHubApiClient.getModifiedFilesNames("commit1", "commit2")));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<List<String>> result : results) {
+                assertEquals(List.of("file1.txt"), result.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        verify(mockClient, times(1)).send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()));
+    }
+
+    @Test
+    @DisplayName("Test warmStart() - Snapshot history - Only the delta is fetched")
+    void testWarmStart_FetchesOnlyDelta(@TempDir Path tempDir) throws Exception {
+        String c1 = "1".repeat(40), c2 = "2".repeat(40), c3 = "3".repeat(40), c4 = "4".repeat(40);
+        Path file = tempDir.resolve("main.snapshot");
+        HistorySnapshot.write(file, Map.of("main", List.of(c2, c1)), Map.of(c2, List.of(c1)),
+                Map.of(HistorySnapshot.compareKey(c1, c2), List.of("file1.txt")));
+
+        HttpResponse<String> mockResponse = mock(HttpResponse.class);
+        when(mockResponse.statusCode()).thenReturn(200);
+        when(mockResponse.body()).thenReturn(String.format(
+                "[{\"sha\": \"%s\", \"parents\": [{\"sha\": \"%s\"}]}, {\"sha\": \"%s\", \"parents\": [{\"sha\": \"%s\"}]}, {\"sha\": \"%s\"}]",
+                c4, c3, c3, c2, c2));
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put("Link", List.of("<https://api.github.com/repos/owner/repo/commits?sha=main&page=2>; rel=\"next\""));
+        when(mockResponse.headers()).thenReturn(HttpHeaders.of(headers, (k, v) -> true));
+        when(mockClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenReturn(mockResponse);
+
+        gitHubApiClient.warmStart(HistorySnapshot.load(file));
+
+        assertEquals(List.of(c4, c3, c2, c1), gitHubApiClient.getCommitHistory("main"));
+        assertEquals(List.of("file1.txt"), gitHubApiClient.getModifiedFilesNames(c1, c2));
+        verify(mockClient, times(1)).send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()));
+
+        Path exported = tempDir.resolve("exported.snapshot");
+        gitHubApiClient.exportSnapshot(exported);
+        HistorySnapshot snapshot = HistorySnapshot.load(exported);
+
+        assertEquals(Optional.of(List.of(c4, c3, c2, c1)), snapshot.getHistory("main"));
+        assertEquals(List.of(c3), snapshot.getParents(c4));
+        assertEquals(List.of(c1), snapshot.getParents(c2));
+        assertEquals(Optional.of(List.of("file1.txt")), snapshot.getModifiedFiles(c1, c2));
+    }
+
+    @Test
+    @DisplayName("Test exportSnapshot() - Nothing recorded - IllegalStateException")
+    void testExportSnapshot_NotRecording_Throws(@TempDir Path tempDir) {
+        assertThrows(IllegalStateException.class, () -> gitHubApiClient.exportSnapshot(tempDir.resolve("main.snapshot")));
+    }
+
+    @Test
+    @DisplayName("Test recordSnapshot() - Histories fetched by branch and by SHA - Only the branch is exported")
+    void testRecordSnapshot_HistoriesKeyedByBranchOnly(@TempDir Path tempDir) throws Exception {
+        String c1 = "1".repeat(40), c2 = "2".repeat(40);
+        HttpResponse<String> mockResponse = mock(HttpResponse.class);
+        when(mockResponse.statusCode()).thenReturn(200);
+        when(mockResponse.body()).thenReturn(String.format("[{\"sha\": \"%s\", \"parents\": [{\"sha\": \"%s\"}]}, {\"sha\": \"%s\"}]", c2, c1, c1));
+        when(mockResponse.headers()).thenReturn(HttpHeaders.of(new HashMap<>(), (k, v) -> true));
+        when(mockClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenReturn(mockResponse);
+
+        gitHubApiClient.recordSnapshot();
+        gitHubApiClient.getCommitHistory("main");
+        gitHubApiClient.getCommitHistory(c2);
+
+        Path exported = tempDir.resolve("main.snapshot");
+        gitHubApiClient.exportSnapshot(exported);
+        HistorySnapshot snapshot = HistorySnapshot.load(exported);
+
+        assertEquals(List.of("main"), List.copyOf(snapshot.branches()));
+        assertEquals(List.of(c1), snapshot.getParents(c2));
+    }
+
+    @Test
+    @DisplayName("Test getModifiedFilesNames() - Not recording - Compare cache keeps only recent results")
+    void testGetModifiedFilesNames_CompareCacheBounded() throws Exception {
+        HttpResponse<String> mockResponse = mock(HttpResponse.class);
+        when(mockResponse.statusCode()).thenReturn(200);
+        when(mockResponse.body()).thenReturn("{ \"files\": [ { \"filename\": \"file1.txt\" } ] }");
+        when(mockResponse.headers()).thenReturn(HttpHeaders.of(new HashMap<>(), (k, v) -> true));
+        when(mockClient.send(any(), eq(HttpResponse.BodyHandlers.ofString()))).thenReturn(mockResponse);
+
+        String base = "0".repeat(40);
+        String first = String.format("%040x", 1);
+        gitHubApiClient.getModifiedFilesNames(base, first);
+        gitHubApiClient.getModifiedFilesNames(base, first);
+        verify(mockClient, times(1)).send(any(), eq(HttpResponse.BodyHandlers.ofString()));
+
+        for (int i = 2; i <= 1025; i++) {
+            gitHubApiClient.getModifiedFilesNames(base, String.format("%040x", i));
+        }
+        gitHubApiClient.getModifiedFilesNames(base, first);
+
+        verify(mockClient, times(1026)).send(any(), eq(HttpResponse.BodyHandlers.ofString()));
+    }
+
+    @Test
+    @DisplayName("Test getComparedCommits() - Lists commits and answers the following compare from cache")
+    void testGetComparedCommits_ListsCommitsAndCachesFiles() throws Exception {
+        String base = "0".repeat(40);
+        String head = "f".repeat(40);
+        HttpResponse<String> mockResponse = mock(HttpResponse.class);
+        when(mockResponse.statusCode()).thenReturn(200);
+        when(mockResponse.body()).thenReturn("{ \"total_commits\": 2, \"commits\": [ { \"sha\": \"side\" }, { \"sha\": \"" + head
+                + "\" } ], \"files\": [ { \"filename\": \"file1.txt\" } ] }");
+        when(mockResponse.headers()).thenReturn(HttpHeaders.of(new HashMap<>(), (k, v) -> true));
+        when(mockClient.send(any(), eq(HttpResponse.BodyHandlers.ofString()))).thenReturn(mockResponse);
+
+        long deadline = gitHubApiClient.newDeadline();
+        assertEquals(Optional.of(List.of("side", head)), gitHubApiClient.getComparedCommits(base, head, deadline));
+        assertEquals(List.of("file1.txt"), gitHubApiClient.getModifiedFilesNames(base, head, deadline));
+        verify(mockClient, times(1)).send(any(), eq(HttpResponse.BodyHandlers.ofString()));
+    }
+
+    @Test
+    @DisplayName("Test getComparedCommits() - Truncated commit list - Empty")
+    void testGetComparedCommits_Truncated_Empty() throws Exception {
+        HttpResponse<String> mockResponse = mock(HttpResponse.class);
+        when(mockResponse.statusCode()).thenReturn(200);
+        when(mockResponse.body()).thenReturn("{ \"total_commits\": 300, \"commits\": [ { \"sha\": \"c1\" } ], \"files\": [] }");
+        when(mockResponse.headers()).thenReturn(HttpHeaders.of(new HashMap<>(), (k, v) -> true));
+        when(mockClient.send(any(), eq(HttpResponse.BodyHandlers.ofString()))).thenReturn(mockResponse);
+
+        assertEquals(Optional.empty(), gitHubApiClient.getComparedCommits("base", "head", gitHubApiClient.newDeadline()));
+    }
 }
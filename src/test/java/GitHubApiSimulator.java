@@ -0,0 +1,284 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the parts of the GitHub REST API used by {@code GitHubApiClient}, for load tests that must not
+ * hit the real service.
+ * <p>
+ * Serves {@code /repos/{owner}/{repo}/commits} with Link header pagination, {@code /commits/{ref}} and
+ * {@code /compare/{base}...{head}} for synthetic branches. A branch is a configurable number of generated commits on
+ * top of a shared history, typically the real history of a fixture repository so that merge bases can be found
+ * locally. Every response is delayed by the configured latency, a configurable share of requests fails with
+ * {@code 502}, and rate limit headers count down a quota that is answered with {@code 403} once used up.
+ */
+public class GitHubApiSimulator implements AutoCloseable {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * @param pageSize Commits per page of the commits endpoint.
+     * @param filesPerCompare Files reported as modified by every compare.
+     * @param filePool Compare files are picked from {@code src/file0.java} to {@code src/file{filePool-1}.java}.
+     * @param latency Base delay of every response.
+     * @param jitter Maximum random delay added to the base latency.
+     * @param errorRate Share of requests answered with {@code 502}, between 0 and 1.
+     * @param rateLimit Requests allowed per window, or {@code 0} for no limit.
+     */
+    public record Settings(int pageSize, int filesPerCompare, int filePool, Duration latency, Duration jitter,
+                           double errorRate, int rateLimit) {
+
+        public static Settings defaults() {
+            return new Settings(30, 20, 200, Duration.ofMillis(20), Duration.ofMillis(10), 0.0, 0);
+        }
+
+        public Settings withLatency(Duration latency, Duration jitter) {
+            return new Settings(pageSize, filesPerCompare, filePool, latency, jitter, errorRate, rateLimit);
+        }
+
+        public Settings withErrorRate(double errorRate) {
+            return new Settings(pageSize, filesPerCompare, filePool, latency, jitter, errorRate, rateLimit);
+        }
+
+        public Settings withRateLimit(int rateLimit) {
+            return new Settings(pageSize, filesPerCompare, filePool, latency, jitter, errorRate, rateLimit);
+        }
+    }
+
+    private final Settings settings;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, List<String>> branches = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicInteger remaining;
+    private final long reset = Instant.now().plus(Duration.ofHours(1)).getEpochSecond();
+
+    /**
+     * Starts the simulator on a free local port.
+     *
+     * @param settings The behaviour of the simulated API.
+     * @throws IOException If the server socket could not be bound.
+     */
+    public GitHubApiSimulator(Settings settings) throws IOException {
+        this.settings = settings;
+        this.remaining = new AtomicInteger(settings.rateLimit());
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        server.setExecutor(executor);
+        server.createContext("/repos/", this::handle);
+        server.start();
+    }
+
+    /**
+     * Defines a branch as {@code extraCommits} generated commits on top of the given history.
+     *
+     * @param name The name of the branch.
+     * @param sharedHistory The commits the branch is based on, most recent first.
+     * @param extraCommits The number of commits to generate on top.
+     * @return The full history of the branch, most recent first.
+     */
+    public List<String> addBranch(String name, List<String> sharedHistory, int extraCommits) {
+        List<String> history = new ArrayList<>(extraCommits + sharedHistory.size());
+        for (int i = extraCommits; i > 0; i--) history.add(syntheticSha(name + "/" + i));
+        history.addAll(sharedHistory);
+        branches.put(name, List.copyOf(history));
+        return history;
+    }
+
+    /**
+     * @return The root URL to pass to the client instead of {@code https://api.github.com}.
+     */
+    public String getApiUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public long getErrorCount() {
+        return errors.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            delay();
+
+            if (settings.rateLimit() > 0) {
+                int left = remaining.updateAndGet(value -> Math.max(0, value - 1));
+                exchange.getResponseHeaders().add("X-RateLimit-Limit", String.valueOf(settings.rateLimit()));
+                exchange.getResponseHeaders().add("X-RateLimit-Remaining", String.valueOf(left));
+                exchange.getResponseHeaders().add("X-RateLimit-Reset", String.valueOf(reset));
+                if (left == 0) {
+                    send(exchange, 403, Map.of("message", "API rate limit exceeded"));
+                    return;
+                }
+            }
+            if (ThreadLocalRandom.current().nextDouble() < settings.errorRate()) {
+                errors.incrementAndGet();
+                send(exchange, 502, Map.of("message", "Server Error"));
+                return;
+            }
+
+            // /repos/{owner}/{repo}/{endpoint}/{argument}
+            String[] segments = exchange.getRequestURI().getPath().split("/", 6);
+            String endpoint = segments.length > 4 ? segments[4] : "";
+            String argument = segments.length > 5 ? segments[5] : "";
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+            if (endpoint.equals("commits") && argument.isEmpty()) {
+                listCommits(exchange, query);
+            } else if (endpoint.equals("commits")) {
+                getCommit(exchange, argument);
+            } else if (endpoint.equals("compare") && argument.contains("...")) {
+                compare(exchange, argument);
+            } else {
+                send(exchange, 404, Map.of("message", "Not Found"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void listCommits(HttpExchange exchange, Map<String, String> query) throws IOException {
+        String ref = query.getOrDefault("sha", "");
+        List<String> history = resolve(ref);
+        if (history == null) {
+            send(exchange, 404, Map.of("message", "No commit found for SHA: " + ref));
+            return;
+        }
+
+        int page = Integer.parseInt(query.getOrDefault("page", "1"));
+        int from = Math.min((page - 1) * settings.pageSize(), history.size());
+        int to = Math.min(from + settings.pageSize(), history.size());
+
+        List<Map<String, Object>> commits = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            List<Map<String, String>> parents = i + 1 < history.size() ? List.of(Map.of("sha", history.get(i + 1))) : List.of();
+            commits.add(Map.of("sha", history.get(i), "parents", parents));
+        }
+
+        if (to < history.size()) {
+            String next = String.format("%s%s?sha=%s&page=%d", getApiUrl(), exchange.getRequestURI().getPath(), ref, page + 1);
+            exchange.getResponseHeaders().add("Link", String.format("<%s>; rel=\"next\"", next));
+        }
+        send(exchange, 200, commits);
+    }
+
+    private void getCommit(HttpExchange exchange, String ref) throws IOException {
+        List<String> history = resolve(ref);
+        if (history == null) {
+            send(exchange, 404, Map.of("message", "No commit found for SHA: " + ref));
+            return;
+        }
+
+        String sha = history.getFirst();
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        if (accept != null && accept.contains("vnd.github.sha")) {
+            exchange.getResponseHeaders().add("ETag", "\"" + sha + "\"");
+            byte[] body = sha.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            return;
+        }
+        send(exchange, 200, Map.of("sha", sha, "files", files(sha, Math.max(1, settings.filesPerCompare() / 4))));
+    }
+
+    private void compare(HttpExchange exchange, String range) throws IOException {
+        String[] refs = range.split("\\.\\.\\.", 2);
+        List<String> base = resolve(refs[0]);
+        List<String> head = resolve(refs[1]);
+        if (base == null || head == null) {
+            send(exchange, 404, Map.of("message", "Not Found"));
+            return;
+        }
+        send(exchange, 200, Map.of("status", "diverged", "files", files(base.getFirst() + head.getFirst(), settings.filesPerCompare())));
+    }
+
+    private List<String> resolve(String ref) {
+        List<String> history = branches.get(ref);
+        if (history != null) return history;
+
+        for (List<String> candidate : branches.values()) {
+            int index = candidate.indexOf(ref);
+            if (index >= 0) return candidate.subList(index, candidate.size());
+        }
+        return null;
+    }
+
+    /**
+     * Picks a deterministic set of files from the pool, so that repeated compares of the same commits agree.
+     */
+    private List<Map<String, Object>> files(String seed, int count) {
+        Random random = new Random(seed.hashCode());
+        Set<Integer> picked = new TreeSet<>();
+        int target = Math.min(count, settings.filePool());
+        while (picked.size() < target) picked.add(random.nextInt(settings.filePool()));
+
+        List<Map<String, Object>> files = new ArrayList<>(picked.size());
+        for (int file : picked) {
+            files.add(Map.of("filename", "src/file" + file + ".java", "status", "modified", "additions", 1, "deletions", 1,
+                    "patch", String.format("@@ -%d,1 +%d,1 @@\n-old\n+new", file % 50 + 1, file % 50 + 1)));
+        }
+        return files;
+    }
+
+    private void delay() throws InterruptedException {
+        long nanos = settings.latency().toNanos();
+        long jitter = settings.jitter().toNanos();
+        if (jitter > 0) nanos += ThreadLocalRandom.current().nextLong(jitter);
+        if (nanos > 0) Thread.sleep(Duration.ofNanos(nanos));
+    }
+
+    private static void send(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = MAPPER.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null) return parameters;
+
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) parameters.put(pair.substring(0, equals), pair.substring(equals + 1));
+        }
+        return parameters;
+    }
+
+    static String syntheticSha(String seed) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1").digest(seed.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
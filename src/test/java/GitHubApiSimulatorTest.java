@@ -0,0 +1,77 @@
+import org.example.GitHubApiClient;
+import org.example.ResiliencePolicy;
+import org.example.exceptions.GitHubApiException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GitHubApiSimulatorTest {
+    private static final List<String> BASE = IntStream.range(0, 50)
+            .mapToObj(i -> GitHubApiSimulator.syntheticSha("base/" + i))
+            .toList();
+
+    private GitHubApiSimulator simulator;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @AfterEach
+    void tearDown() {
+        if (simulator != null) simulator.close();
+    }
+
+    private GitHubApiClient client(GitHubApiSimulator.Settings settings, ResiliencePolicy policy) throws Exception {
+        simulator = new GitHubApiSimulator(settings.withLatency(Duration.ZERO, Duration.ZERO));
+        return new GitHubApiClient(httpClient, "repo", "owner", "token", policy, simulator.getApiUrl());
+    }
+
+    @Test
+    @DisplayName("Test simulator - Commit history paginated through Link headers")
+    void testCommitHistory_Paginated() throws Exception {
+        GitHubApiClient github = client(GitHubApiSimulator.Settings.defaults(), ResiliencePolicy.none());
+        List<String> expected = simulator.addBranch("main", BASE, 25);
+
+        assertEquals(expected, github.getCommitHistory("main"));
+        assertEquals(3, simulator.getRequestCount());
+    }
+
+    @Test
+    @DisplayName("Test simulator - Compare results are deterministic")
+    void testCompare_Deterministic() throws Exception {
+        GitHubApiClient github = client(GitHubApiSimulator.Settings.defaults(), ResiliencePolicy.none());
+        List<String> history = simulator.addBranch("main", BASE, 5);
+
+        List<String> files = github.getModifiedFilesNames(BASE.get(3), history.getFirst());
+
+        assertEquals(20, files.size());
+        assertEquals(files, github.getModifiedFilesNames(BASE.get(3), "main"));
+        assertEquals(history.getFirst(), github.getHeadCommit("main"));
+    }
+
+    @Test
+    @DisplayName("Test simulator - Injected errors surface as GitHubApiException without retries")
+    void testInjectedErrors_Fail() throws Exception {
+        GitHubApiClient github = client(GitHubApiSimulator.Settings.defaults().withErrorRate(1.0), ResiliencePolicy.none());
+        simulator.addBranch("main", BASE, 5);
+
+        assertThrows(GitHubApiException.class, () -> github.getCommitHistory("main"));
+        assertEquals(1, simulator.getErrorCount());
+    }
+
+    @Test
+    @DisplayName("Test simulator - Rate limit headers count down")
+    void testRateLimit_CountsDown() throws Exception {
+        GitHubApiClient github = client(GitHubApiSimulator.Settings.defaults().withRateLimit(100), ResiliencePolicy.none());
+        simulator.addBranch("main", BASE, 5);
+
+        github.getCommitHistory("main");
+
+        assertEquals(98, github.getRateLimitRemaining());
+    }
+}
@@ -0,0 +1,93 @@
+import org.example.HistorySnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HistorySnapshotTest {
+
+    private static final String C1 = "1111111111111111111111111111111111111111";
+    private static final String C2 = "a2a2a2a2a2a2a2a2a2a2a2a2a2a2a2a2a2a2a2a2";
+    private static final String C3 = "03030303030303030303030303030303030303ff";
+    private static final String C4 = "f4f4f4f4f4f4f4f4f4f4f4f4f4f4f4f4f4f4f4f4";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Test write() and load() - Round trip")
+    void testWriteAndLoad_RoundTrip() throws Exception {
+        Path file = tempDir.resolve("main.snapshot");
+
+        HistorySnapshot.write(file,
+                Map.of("main", List.of(C3, C2, C1), "release", List.of(C4, C1)),
+                Map.of(C3, List.of(C2, C4), C2, List.of(C1), C4, List.of(C1)),
+                Map.of(HistorySnapshot.compareKey(C1, C3), List.of("src/Main.java", "docs/ünïcode.md")));
+
+        HistorySnapshot snapshot = HistorySnapshot.load(file);
+
+        assertEquals(Optional.of(List.of(C3, C2, C1)), snapshot.getHistory("main"));
+        assertEquals(Optional.of(List.of(C4, C1)), snapshot.getHistory("release"));
+        assertEquals(Optional.empty(), snapshot.getHistory("feature"));
+        assertEquals(List.of(C2, C4), snapshot.getParents(C3));
+        assertEquals(List.of(), snapshot.getParents(C1));
+        assertEquals(List.of(), snapshot.getParents("unknown"));
+        assertEquals(Optional.of(List.of("src/Main.java", "docs/ünïcode.md")), snapshot.getModifiedFiles(C1, C3));
+        assertEquals(Optional.empty(), snapshot.getModifiedFiles(C3, C1));
+    }
+
+    @Test
+    @DisplayName("Test write() - Parent outside every history has parents itself - Stored transitively")
+    void testWrite_ParentWithParents_StoredTransitively() throws Exception {
+        Path file = tempDir.resolve("main.snapshot");
+
+        HistorySnapshot.write(file, Map.of("main", List.of(C3)),
+                Map.of(C3, List.of(C2), C2, List.of(C1, C4)), Map.of());
+
+        HistorySnapshot snapshot = HistorySnapshot.load(file);
+        assertEquals(List.of(C2), snapshot.getParents(C3));
+        assertEquals(List.of(C1, C4), snapshot.getParents(C2));
+        assertEquals(List.of(), snapshot.getParents(C4));
+    }
+
+    @Test
+    @DisplayName("Test write() - Commits are stored as packed 20-byte SHAs")
+    void testWrite_PackedSize() throws Exception {
+        Path file = tempDir.resolve("main.snapshot");
+
+        HistorySnapshot.write(file, Map.of("main", List.of(C2, C1)), Map.of(C2, List.of(C1)), Map.of());
+
+        // header (12) + SHAs (2 * 20) + parent offsets (3 * 4) + parent table (4 + 4)
+        // + branches (4 + 4 + 4 + 4 + 2 * 4) + compares (4)
+        assertEquals(12 + 40 + 12 + 8 + 24 + 4, Files.size(file));
+    }
+
+    @Test
+    @DisplayName("Test write() and load() - Path longer than 65535 bytes - Round trip")
+    void testWriteAndLoad_LongPath_RoundTrip() throws Exception {
+        Path file = tempDir.resolve("main.snapshot");
+        String longPath = "dir/".repeat(20_000) + "file.txt";
+
+        HistorySnapshot.write(file, Map.of("main", List.of(C3, C1)), Map.of(),
+                Map.of(HistorySnapshot.compareKey(C1, C3), List.of(longPath, "short.txt")));
+
+        assertEquals(Optional.of(List.of(longPath, "short.txt")), HistorySnapshot.load(file).getModifiedFiles(C1, C3));
+    }
+
+    @Test
+    @DisplayName("Test load() - Invalid file - IOException")
+    void testLoad_InvalidFile_ThrowsIOException() throws Exception {
+        Path file = tempDir.resolve("invalid.snapshot");
+        Files.writeString(file, "not a snapshot at all");
+
+        assertThrows(IOException.class, () -> HistorySnapshot.load(file));
+    }
+}
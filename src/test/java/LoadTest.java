@@ -0,0 +1,54 @@
+import org.example.ResiliencePolicy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load test run only with {@code mvn test -Pload-test}; the workload is tuned with {@code -Dload.*} properties.
+ */
+@Tag("load")
+public class LoadTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Load test compareModifiedFiles() against the GitHub API simulator")
+    void testCompareModifiedFiles_UnderLoad() throws Exception {
+        int historyLength = Integer.getInteger("load.historyLength", 300);
+        int remoteBranches = Integer.getInteger("load.remoteBranches", 8);
+        int remoteCommits = Integer.getInteger("load.remoteCommits", 40);
+        double errorRate = Double.parseDouble(System.getProperty("load.errorRate", "0.02"));
+        Duration latency = Duration.ofMillis(Integer.getInteger("load.latencyMs", 20));
+
+        GitHubApiSimulator.Settings settings = GitHubApiSimulator.Settings.defaults()
+                .withLatency(latency, latency.dividedBy(2))
+                .withErrorRate(errorRate);
+        LoadTestDriver.Workload workload = new LoadTestDriver.Workload(
+                Integer.getInteger("load.concurrency", 16),
+                Integer.getInteger("load.operations", 400),
+                Integer.getInteger("load.warmup", 50),
+                remoteBranches,
+                Boolean.getBoolean("load.sharedClient"));
+
+        FixtureRepository fixture = FixtureRepository.create(tempDir, historyLength, 20, settings.filePool());
+        try (GitHubApiSimulator simulator = new GitHubApiSimulator(settings)) {
+            for (int i = 0; i < remoteBranches; i++) {
+                simulator.addBranch("remote-" + i, fixture.mainHistory(), remoteCommits);
+            }
+
+            LoadTestDriver.Report report = new LoadTestDriver(fixture, simulator, ResiliencePolicy.defaults()).run(workload);
+            System.out.println(workload);
+            System.out.println(report);
+
+            assertEquals(workload.operations(), report.operations());
+            assertTrue(report.failures() < report.operations() / 10, "too many failed comparisons:\n" + report);
+        }
+    }
+}
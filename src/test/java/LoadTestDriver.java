@@ -0,0 +1,142 @@
+import org.example.BranchComparator;
+import org.example.CommandUtils;
+import org.example.GitCommandExecutor;
+import org.example.GitHubApiClient;
+import org.example.ResiliencePolicy;
+
+import java.lang.management.ManagementFactory;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs concurrent {@link BranchComparator#compareModifiedFiles(String, String)} workloads against a
+ * {@link FixtureRepository} and a {@link GitHubApiSimulator}, and reports throughput, latency percentiles and the
+ * allocation rate. Allocation is measured for the whole JVM during the measured phase, so it includes the threads of
+ * the HTTP client and of the simulator itself.
+ */
+public class LoadTestDriver {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * @param concurrency Number of worker threads issuing comparisons.
+     * @param operations Number of measured comparisons.
+     * @param warmupOperations Number of comparisons run before measuring.
+     * @param remoteBranches Number of simulated remote branches the comparisons are spread over; each must have been
+     *                       added to the simulator as {@code remote-0} to {@code remote-{n-1}}.
+     * @param sharedClient Whether all comparisons share one {@link GitHubApiClient} (and its caches) or each
+     *                     comparison starts from a fresh one, as a short-lived process would.
+     */
+    public record Workload(int concurrency, int operations, int warmupOperations, int remoteBranches, boolean sharedClient) {
+    }
+
+    public record Report(int operations, int failures, Duration elapsed, long p50Nanos, long p90Nanos, long p99Nanos,
+                         long maxNanos, long allocatedBytes, long simulatorRequests, long simulatorErrors) {
+
+        public double throughput() {
+            return operations / (elapsed.toNanos() / 1e9);
+        }
+
+        public double allocationRate() {
+            return allocatedBytes / (elapsed.toNanos() / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("""
+                            operations:  %d (%d failed) in %.2f s
+                            throughput:  %.1f ops/s
+                            latency:     p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, max %.2f ms
+                            allocation:  %.1f MB/s, %.1f KB/op (whole JVM)
+                            simulator:   %d requests, %d injected errors""",
+                    operations, failures, elapsed.toNanos() / 1e9, throughput(),
+                    p50Nanos / 1e6, p90Nanos / 1e6, p99Nanos / 1e6, maxNanos / 1e6,
+                    allocationRate() / (1024 * 1024), operations == 0 ? 0 : allocatedBytes / 1024.0 / operations,
+                    simulatorRequests, simulatorErrors);
+        }
+    }
+
+    private final FixtureRepository fixture;
+    private final GitHubApiSimulator simulator;
+    private final ResiliencePolicy policy;
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    public LoadTestDriver(FixtureRepository fixture, GitHubApiSimulator simulator, ResiliencePolicy policy) {
+        this.fixture = fixture;
+        this.simulator = simulator;
+        this.policy = policy;
+    }
+
+    public Report run(Workload workload) throws InterruptedException {
+        GitCommandExecutor git = new GitCommandExecutor(fixture.directory().toString(), new CommandUtils());
+        GitHubApiClient shared = newClient();
+
+        execute(workload, workload.warmupOperations(), git, shared, null);
+
+        long requestsBefore = simulator.getRequestCount();
+        long errorsBefore = simulator.getErrorCount();
+        long[] latencies = new long[workload.operations()];
+        AtomicInteger failures = new AtomicInteger();
+
+        long allocatedBefore = THREADS.getTotalThreadAllocatedBytes();
+        long start = System.nanoTime();
+        execute(workload, workload.operations(), git, shared, (index, nanos, failed) -> {
+            latencies[index] = nanos;
+            if (failed) failures.incrementAndGet();
+        });
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        long allocated = THREADS.getTotalThreadAllocatedBytes() - allocatedBefore;
+
+        Arrays.sort(latencies);
+        return new Report(workload.operations(), failures.get(), elapsed,
+                percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                latencies.length == 0 ? 0 : latencies[latencies.length - 1], allocated,
+                simulator.getRequestCount() - requestsBefore, simulator.getErrorCount() - errorsBefore);
+    }
+
+    private interface Recorder {
+        void record(int index, long nanos, boolean failed);
+    }
+
+    private void execute(Workload workload, int operations, GitCommandExecutor git, GitHubApiClient shared, Recorder recorder)
+            throws InterruptedException {
+        AtomicInteger next = new AtomicInteger();
+
+        try (ExecutorService workers = Executors.newFixedThreadPool(workload.concurrency())) {
+            for (int worker = 0; worker < workload.concurrency(); worker++) {
+                workers.execute(() -> {
+                    for (int index = next.getAndIncrement(); index < operations; index = next.getAndIncrement()) {
+                        String remoteBranch = "remote-" + index % workload.remoteBranches();
+                        GitHubApiClient github = workload.sharedClient() ? shared : newClient();
+
+                        long begin = System.nanoTime();
+                        boolean failed = false;
+                        try {
+                            new BranchComparator(git, github).compareModifiedFiles("feature", remoteBranch);
+                        } catch (Exception e) {
+                            failed = true;
+                        }
+                        long nanos = System.nanoTime() - begin;
+                        if (recorder != null) recorder.record(index, nanos, failed);
+                    }
+                });
+            }
+            workers.shutdown();
+            workers.awaitTermination(1, TimeUnit.HOURS);
+        }
+    }
+
+    private GitHubApiClient newClient() {
+        return new GitHubApiClient(httpClient, "repo", "owner", "token", policy, simulator.getApiUrl());
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) return 0;
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+}
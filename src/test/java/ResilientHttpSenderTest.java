@@ -0,0 +1,236 @@
+import org.example.ResiliencePolicy;
+import org.example.ResilientHttpSender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ResilientHttpSenderTest {
+
+    @Mock
+    private HttpClient mockClient;
+
+    private final HttpRequest request = HttpRequest.newBuilder(URI.create("https://api.github.com/repos/owner/repo/commits"))
+            .timeout(Duration.ofSeconds(10))
+            .GET()
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private static ResiliencePolicy retries(int maxRetries, int breakerThreshold) {
+        return new ResiliencePolicy(maxRetries, Duration.ofMillis(1), Duration.ofMillis(5), false, Duration.ZERO,
+                Duration.ofSeconds(10), Duration.ofSeconds(5), breakerThreshold, Duration.ofMinutes(1));
+    }
+
+    private static HttpResponse<String> response(int status, Map<String, List<String>> headers) {
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(status);
+        when(response.body()).thenReturn("");
+        when(response.headers()).thenReturn(HttpHeaders.of(headers, (k, v) -> true));
+        return response;
+    }
+
+    private static HttpResponse<String> response(int status) {
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(status);
+        when(response.body()).thenReturn("");
+        when(response.headers()).thenReturn(HttpHeaders.of(new HashMap<>(), (k, v) -> true));
+        return response;
+    }
+
+    @Test
+    @DisplayName("Test send() - Transient failures - Retried until success")
+    void testSend_TransientFailures_Retried() throws Exception {
+        ResilientHttpSender sender = new ResilientHttpSender(mockClient, retries(3, 0));
+        HttpResponse<String> ok = response(200);
+        HttpResponse<String> unavailable = response(503);
+
+        when(mockClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenThrow(new HttpTimeoutException("timed out"))
+                .thenReturn(unavailable)
+                .thenReturn(ok);
+
+        HttpResponse<String> result = sender.send(request, HttpResponse.BodyHandlers.ofString(), sender.newDeadline());
+
+        assertSame(ok, result);
+        verify(mockClient, times(3)).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+    }
+
+    @Test
+    @DisplayName("Test send() - Retries exhausted - Last error response returned")
+    void testSend_RetriesExhausted_ReturnsLastResponse() throws Exception {
+        ResilientHttpSender sender = new ResilientHttpSender(mockClient, retries(2, 0));
+        HttpResponse<String> error = response(500);
+
+        when(mockClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenReturn(error);
+
+        assertEquals(500, sender.send(request, HttpResponse.BodyHandlers.ofString(), sender.newDeadline()).statusCode());
+        verify(mockClient, times(3)).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+    }
+
+    @Test
+    @DisplayName("Test send() - Client error - Not retried")
+    void testSend_ClientError_NotRetried() throws Exception {
+        ResilientHttpSender sender = new ResilientHttpSender(mockClient, retries(3, 0));
+        HttpResponse<String> notFound = response(404);
+
+        when(mockClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenReturn(notFound);
+
+        assertSame(notFound, sender.send(request, HttpResponse.BodyHandlers.ofString(), sender.newDeadline()));
+        verify(mockClient, times(1)).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+    }
+
+    @Test
+    @DisplayName("Test send() - Consecutive failures - Circuit breaker fails fast")
+    void testSend_ConsecutiveFailures_CircuitOpens() throws Exception {
+        ResilientHttpSender sender = new ResilientHttpSender(mockClient, retries(0, 2));
+
+        when(mockClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenThrow(new IOException("Network error"));
+
+        assertThrows(IOException.class, () -> sender.send(request, HttpResponse.BodyHandlers.ofString(), sender.newDeadline()));
+        assertThrows(IOException.class, () -> sender.send(request, HttpResponse.BodyHandlers.ofString(), sender.newDeadline()));
+        IOException exception = assertThrows(IOException.class,
+                () -> sender.send(request, HttpResponse.BodyHandlers.ofString(), sender.newDeadline()));
+
+        assertTrue(exception.getMessage().contains("circuit breaker is open"));
+        verify(mockClient, times(2)).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+    }
+
+    @Test
+    @DisplayName("Test send() - Budget exhausted - No request sent")
+    void testSend_BudgetExhausted_Throws() throws Exception {
+        ResilientHttpSender sender = new ResilientHttpSender(mockClient, retries(3, 0));
+
+        assertThrows(HttpTimeoutException.class,
+                () -> sender.send(request, HttpResponse.BodyHandlers.ofString(), System.nanoTime() - 1));
+        verifyNoInteractions(mockClient);
+    }
+
+    @Test
+    @DisplayName("Test send() - Slow primary - Hedged request wins and primary is cancelled")
+    void testSend_SlowPrimary_HedgeWins() throws Exception {
+        ResiliencePolicy policy = new ResiliencePolicy(0, Duration.ZERO, Duration.ZERO, true, Duration.ofMillis(20),
+                Duration.ofSeconds(10), null, 0, Duration.ZERO);
+        ResilientHttpSender sender = new ResilientHttpSender(mockClient, policy);
+        HttpResponse<String> ok = response(200);
+        CompletableFuture<HttpResponse<String>> slow = new CompletableFuture<>();
+
+        when(mockClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(slow)
+                .thenReturn(CompletableFuture.completedFuture(ok));
+
+        assertSame(ok, sender.send(request, HttpResponse.BodyHandlers.ofString(), sender.newDeadline()));
+        assertTrue(slow.isCancelled());
+        verify(mockClient, times(2)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+    }
+
+    @Test
+    @DisplayName("Test send() - Secondary rate limit - 403 with Retry-After retried, 403 without it not")
+    void testSend_SecondaryRateLimit_RetriedAfterRetryAfter() throws Exception {
+        ResilientHttpSender sender = new ResilientHttpSender(mockClient, retries(3, 0));
+        HttpResponse<String> limited = response(403, Map.of("Retry-After", List.of("0")));
+        HttpResponse<String> forbidden = response(403);
+        HttpResponse<String> ok = response(200);
+
+        when(mockClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(limited)
+                .thenReturn(ok)
+                .thenReturn(forbidden);
+
+        assertSame(ok, sender.send(request, HttpResponse.BodyHandlers.ofString(), sender.newDeadline()));
+        assertSame(forbidden, sender.send(request, HttpResponse.BodyHandlers.ofString(), sender.newDeadline()));
+        verify(mockClient, times(3)).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+    }
+
+    @Test
+    @DisplayName("Test send() - Hedged primary completes after the hedge won - Its body is closed")
+    void testSend_HedgeWins_LateLoserBodyClosed() throws Exception {
+        ResiliencePolicy policy = new ResiliencePolicy(0, Duration.ZERO, Duration.ZERO, true, Duration.ofMillis(20),
+                Duration.ofSeconds(10), null, 0, Duration.ZERO);
+        ResilientHttpSender sender = new ResilientHttpSender(mockClient, policy);
+        InputStream winnerBody = mock(InputStream.class);
+        InputStream loserBody = mock(InputStream.class);
+        HttpResponse<InputStream> winner = mock(HttpResponse.class);
+        HttpResponse<InputStream> loser = mock(HttpResponse.class);
+        when(winner.statusCode()).thenReturn(200);
+        when(winner.body()).thenReturn(winnerBody);
+        when(loser.statusCode()).thenReturn(200);
+        when(loser.body()).thenReturn(loserBody);
+
+        // The primary ignores cancellation, as a response whose headers already arrived would.
+        CompletableFuture<HttpResponse<InputStream>> primary = new CompletableFuture<>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                return false;
+            }
+        };
+        when(mockClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(primary)
+                .thenReturn(CompletableFuture.completedFuture(winner));
+
+        assertSame(winner, sender.send(request, HttpResponse.BodyHandlers.ofInputStream(), sender.newDeadline()));
+        primary.complete(loser);
+
+        verify(loserBody).close();
+        verify(winnerBody, never()).close();
+    }
+
+    @Test
+    @DisplayName("Test send() - Half-open trial interrupted or failing unexpectedly - Next request becomes the trial")
+    void testSend_HalfOpenTrialInterrupted_TrialReleased() throws Exception {
+        ResiliencePolicy policy = new ResiliencePolicy(0, Duration.ZERO, Duration.ZERO, false, Duration.ZERO,
+                Duration.ofSeconds(10), null, 1, Duration.ofMillis(20));
+        ResilientHttpSender sender = new ResilientHttpSender(mockClient, policy);
+        HttpResponse<String> ok = response(200);
+
+        when(mockClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenThrow(new IOException("Network error"))
+                .thenThrow(new InterruptedException())
+                .thenThrow(new IllegalStateException("unexpected"))
+                .thenReturn(ok);
+
+        assertThrows(IOException.class, () -> sender.send(request, HttpResponse.BodyHandlers.ofString(), sender.newDeadline()));
+        Thread.sleep(30);
+        assertThrows(InterruptedException.class, () -> sender.send(request, HttpResponse.BodyHandlers.ofString(), sender.newDeadline()));
+        assertThrows(IllegalStateException.class, () -> sender.send(request, HttpResponse.BodyHandlers.ofString(), sender.newDeadline()));
+
+        assertSame(ok, sender.send(request, HttpResponse.BodyHandlers.ofString(), sender.newDeadline()));
+        verify(mockClient, times(4)).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+    }
+
+    @Test
+    @DisplayName("Test send() - Retry-After beyond the budget - Rate limited response returned without waiting")
+    void testSend_RetryAfterBeyondBudget_ReturnsImmediately() throws Exception {
+        ResilientHttpSender sender = new ResilientHttpSender(mockClient, retries(3, 0));
+        HttpResponse<String> limited = response(429, Map.of("Retry-After", List.of("60")));
+
+        when(mockClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenReturn(limited);
+
+        long start = System.nanoTime();
+        assertSame(limited, sender.send(request, HttpResponse.BodyHandlers.ofString(), sender.newDeadline()));
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos());
+        verify(mockClient, times(1)).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+    }
+}
@@ -0,0 +1,135 @@
+import org.example.SingleFlight;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    private final SingleFlight<String, String> flights = new SingleFlight<>();
+
+    @Test
+    @DisplayName("Test execute() - Concurrent identical calls - Loader runs once")
+    void testExecute_ConcurrentCalls_LoaderRunsOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 10; i++) {
+                results.add(executor.submit(() -> flights.execute("key", () -> {
+                    loads.incrementAndGet();
+                    release.await();
+                    return "value";
+                })));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("value", result.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(0, flights.inFlight());
+    }
+
+    @Test
+    @DisplayName("Test execute() - Uncontended call - Loader runs on the calling thread")
+    void testExecute_Uncontended_RunsOnCallingThread() throws Exception {
+        SingleFlight<String, Thread> threads = new SingleFlight<>();
+
+        assertSame(Thread.currentThread(), threads.execute("key", Thread::currentThread));
+        assertEquals(0, threads.inFlight());
+    }
+
+    @Test
+    @DisplayName("Test execute() - Loader fails - Every caller sees the original exception")
+    void testExecute_LoaderFails_PropagatesCause() {
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> flights.execute("key", () -> { throw new IOException("boom"); }));
+
+        assertInstanceOf(IOException.class, exception.getCause());
+        assertEquals(0, flights.inFlight());
+    }
+
+    @Test
+    @DisplayName("Test execute() - First caller interrupted while another waits - Load abandoned and run again")
+    void testExecute_FirstCallerInterrupted_WaiterRunsLoaderAgain() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger invocations = new AtomicInteger();
+        Callable<String> loader = () -> {
+            invocations.incrementAndGet();
+            started.countDown();
+            release.await();
+            return "value";
+        };
+
+        CompletableFuture<Exception> firstFailure = new CompletableFuture<>();
+        Thread first = Thread.ofVirtual().start(() -> {
+            try {
+                flights.execute("key", loader);
+                firstFailure.complete(null);
+            } catch (Exception e) {
+                firstFailure.complete(e);
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> {
+            try {
+                return flights.execute("key", loader);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        });
+        Thread.sleep(100);
+
+        first.interrupt();
+        first.join();
+        release.countDown();
+
+        assertInstanceOf(InterruptedException.class, firstFailure.get(5, TimeUnit.SECONDS));
+        assertEquals("value", second.get(5, TimeUnit.SECONDS));
+        assertEquals(2, invocations.get());
+        assertEquals(0, flights.inFlight());
+    }
+
+    @Test
+    @DisplayName("Test execute() - Only caller interrupted - Loader is interrupted")
+    void testExecute_OnlyCallerInterrupted_LoaderInterrupted() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        Thread caller = Thread.ofVirtual().start(() -> {
+            try {
+                flights.execute("key", () -> {
+                    started.countDown();
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                    return "value";
+                });
+            } catch (Exception ignored) {
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        caller.interrupt();
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertTrue(caller.join(Duration.ofSeconds(5)));
+        assertEquals(0, flights.inFlight());
+    }
+}
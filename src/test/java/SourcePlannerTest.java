@@ -0,0 +1,80 @@
+import org.example.GitCommandExecutor;
+import org.example.GitHubApiClient;
+import org.example.SourcePlan;
+import org.example.SourcePlanner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class SourcePlannerTest {
+
+    @Mock
+    private GitCommandExecutor mockGit;
+
+    @Mock
+    private GitHubApiClient mockGitHub;
+
+    private SourcePlanner planner;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        planner = new SourcePlanner(mockGit, mockGitHub);
+        when(mockGitHub.getHeadCommit(eq("main"), anyLong())).thenReturn("r1");
+        when(mockGit.findCommit(anyString())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    @DisplayName("Test plan() - Remote head present locally - LOCAL plan")
+    void testPlan_RemoteHeadPresentLocally_ChoosesLocal() throws Exception {
+        when(mockGit.findCommit("r1")).thenReturn(Optional.of("r1"));
+
+        SourcePlan plan = planner.plan("main");
+
+        assertEquals(SourcePlan.Strategy.LOCAL, plan.strategy());
+        assertEquals(0, plan.httpRequests());
+        verify(mockGit, never()).findCommit("refs/remotes/origin/main");
+    }
+
+    @Test
+    @DisplayName("Test plan() - Stale tracking ref with long history - HYBRID plan")
+    void testPlan_StaleTrackingRef_ChoosesHybrid() throws Exception {
+        when(mockGit.findCommit("refs/remotes/origin/main")).thenReturn(Optional.of("r3"));
+        when(mockGit.countCommits("r3")).thenReturn(500);
+
+        SourcePlan plan = planner.plan("main");
+
+        assertEquals(SourcePlan.Strategy.HYBRID, plan.strategy());
+        assertEquals("r3", plan.localCommit());
+        assertEquals("r1", plan.remoteHead());
+    }
+
+    @Test
+    @DisplayName("Test plan() - Stale tracking ref with a single page of history - REMOTE plan")
+    void testPlan_StaleTrackingRefShortHistory_ChoosesRemote() throws Exception {
+        when(mockGit.findCommit("refs/remotes/origin/main")).thenReturn(Optional.of("r3"));
+        when(mockGit.countCommits("r3")).thenReturn(10);
+
+        SourcePlan plan = planner.plan("main");
+
+        assertEquals(SourcePlan.Strategy.REMOTE, plan.strategy());
+        assertEquals(2, plan.httpRequests());
+    }
+
+    @Test
+    @DisplayName("Test plan() - No tracking ref - REMOTE plan")
+    void testPlan_NoTrackingRef_ChoosesRemote() throws Exception {
+        SourcePlan plan = planner.plan("main");
+
+        assertEquals(SourcePlan.Strategy.REMOTE, plan.strategy());
+        verify(mockGit, never()).countCommits(anyString());
+    }
+}